@@ -1,3 +1,8 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
 /**
  * A utility class that provides additional operations for bags.
  * This class demonstrates advanced bag manipulations and algorithms.
@@ -7,6 +12,11 @@
  */
 public class BagOperations {
     
+    /**
+     * Bags with at least this many entries are counted in parallel partitions.
+     */
+    private static final int PARALLEL_THRESHOLD = 10_000;
+    
     /**
      * Creates a union of two bags without modifying the original bags.
      * @param <T> the type of elements in the bags
@@ -34,6 +44,9 @@ public class BagOperations {
     
     /**
      * Creates an intersection of two bags without modifying the original bags.
+     * Counts the entries of bag2 once in a hash map, so this takes O(n + m)
+     * instead of searching bag2 for every entry of bag1.
+     * Entries must therefore override hashCode consistently with equals.
      * @param <T> the type of elements in the bags
      * @param bag1 the first bag
      * @param bag2 the second bag
@@ -41,13 +54,14 @@ public class BagOperations {
      */
     public static <T> BagInterface<T> intersection(BagInterface<T> bag1, BagInterface<T> bag2) {
         BagInterface<T> result = new LinkedBag<>();
-        BagInterface<T> copyOfBag2 = copyBag(bag2);
+        Map<T, Integer> remaining = frequencies(bag2.toArray());
         
         T[] bag1Array = bag1.toArray();
         for (T item : bag1Array) {
-            if (copyOfBag2.contains(item)) {
+            Integer count = remaining.get(item);
+            if (count != null && count > 0) {
                 result.add(item);
-                copyOfBag2.remove(item);
+                remaining.put(item, count - 1);
             }
         }
         
@@ -56,6 +70,8 @@ public class BagOperations {
     
     /**
      * Creates the difference of two bags (bag1 - bag2) without modifying the original bags.
+     * Counts the entries of bag2 once in a hash map, so this takes O(n + m).
+     * Entries must therefore override hashCode consistently with equals.
      * @param <T> the type of elements in the bags
      * @param bag1 the first bag
      * @param bag2 the second bag
@@ -63,12 +79,13 @@ public class BagOperations {
      */
     public static <T> BagInterface<T> difference(BagInterface<T> bag1, BagInterface<T> bag2) {
         BagInterface<T> result = new LinkedBag<>();
-        BagInterface<T> copyOfBag2 = copyBag(bag2);
+        Map<T, Integer> remaining = frequencies(bag2.toArray());
         
         T[] bag1Array = bag1.toArray();
         for (T item : bag1Array) {
-            if (copyOfBag2.contains(item)) {
-                copyOfBag2.remove(item);
+            Integer count = remaining.get(item);
+            if (count != null && count > 0) {
+                remaining.put(item, count - 1); // Cancelled by an entry of bag2
             } else {
                 result.add(item);
             }
@@ -96,25 +113,33 @@ public class BagOperations {
     
     /**
      * Checks if one bag is a subset of another.
+     * Compares frequency maps of both bags, so this takes O(n + m).
+     * Entries must therefore override hashCode consistently with equals.
      * @param <T> the type of elements in the bags
      * @param subsetBag the potential subset bag
      * @param supersetBag the potential superset bag
      * @return true if subsetBag is a subset of supersetBag, false otherwise
      */
     public static <T> boolean isSubset(BagInterface<T> subsetBag, BagInterface<T> supersetBag) {
-        T[] subsetArray = subsetBag.toArray();
+        if (subsetBag.getCurrentSize() > supersetBag.getCurrentSize()) {
+            return false;
+        }
+        
+        Map<T, Integer> subsetCounts = frequencies(subsetBag.toArray());
+        Map<T, Integer> supersetCounts = frequencies(supersetBag.toArray());
         
-        for (T item : subsetArray) {
-            if (subsetBag.getFrequencyOf(item) > supersetBag.getFrequencyOf(item)) {
+        for (Map.Entry<T, Integer> entry : subsetCounts.entrySet()) {
+            if (entry.getValue() > supersetCounts.getOrDefault(entry.getKey(), 0)) {
                 return false;
             }
         }
-        
         return true;
     }
     
     /**
      * Checks if two bags are equal (same elements with same frequencies).
+     * Compares frequency maps of both bags, so this takes O(n + m).
+     * Entries must therefore override hashCode consistently with equals.
      * @param <T> the type of elements in the bags
      * @param bag1 the first bag
      * @param bag2 the second bag
@@ -125,14 +150,7 @@ public class BagOperations {
             return false;
         }
         
-        T[] bag1Array = bag1.toArray();
-        for (T item : bag1Array) {
-            if (bag1.getFrequencyOf(item) != bag2.getFrequencyOf(item)) {
-                return false;
-            }
-        }
-        
-        return true;
+        return frequencies(bag1.toArray()).equals(frequencies(bag2.toArray()));
     }
     
     /**
@@ -294,4 +312,60 @@ public class BagOperations {
         
         return removedCount;
     }
+    
+    /**
+     * Counts how often each entry occurs.
+     * When more than one processor is available, large arrays are split into
+     * one slice per processor. Each slice is counted in parallel into its own
+     * map, and the maps are then merged pairwise. Entries must implement
+     * hashCode consistently with equals; null entries are counted like others.
+     * @param <T> the type of the entries
+     * @param entries the entries to count
+     * @return a map from each distinct entry to its frequency
+     */
+    private static <T> Map<T, Integer> frequencies(T[] entries) {
+        int partitions = ForkJoinPool.getCommonPoolParallelism();
+        if (entries.length < PARALLEL_THRESHOLD || partitions < 2) {
+            return countRange(entries, 0, entries.length);
+        }
+        
+        return IntStream.range(0, partitions).parallel()
+            .mapToObj(partition -> countRange(entries,
+                (int) ((long) entries.length * partition / partitions),
+                (int) ((long) entries.length * (partition + 1) / partitions)))
+            .reduce(BagOperations::mergeCounts)
+            .get();
+    }
+    
+    /**
+     * Counts the entries in one slice of an array.
+     * @param <T> the type of the entries
+     * @param entries the entries to count
+     * @param from index of the first entry in the slice
+     * @param to index after the last entry in the slice
+     * @return a map from each distinct entry in the slice to its frequency
+     */
+    private static <T> Map<T, Integer> countRange(T[] entries, int from, int to) {
+        Map<T, Integer> counts = new HashMap<>((int) ((to - from) / 0.75f) + 1);
+        for (int i = from; i < to; i++) {
+            counts.merge(entries[i], 1, Integer::sum);
+        }
+        return counts;
+    }
+    
+    /**
+     * Adds the counts of the smaller map into the larger one.
+     * @param <T> the type of the entries
+     * @param first counts of one slice
+     * @param second counts of another slice
+     * @return the larger map, now holding the counts of both slices
+     */
+    private static <T> Map<T, Integer> mergeCounts(Map<T, Integer> first, Map<T, Integer> second) {
+        Map<T, Integer> larger = first.size() >= second.size() ? first : second;
+        Map<T, Integer> smaller = larger == first ? second : first;
+        for (Map.Entry<T, Integer> entry : smaller.entrySet()) {
+            larger.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+        return larger;
+    }
 } 
\ No newline at end of file
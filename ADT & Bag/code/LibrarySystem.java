@@ -49,6 +49,11 @@ public class LibrarySystem {
             return isbn.equals(book.isbn);
         }
         
+        @Override
+        public int hashCode() {
+            return isbn.hashCode();
+        }
+        
         @Override
         public String toString() {
             return String.format("\"%s\" by %s (%d) [%s] - %s", 
@@ -86,6 +91,11 @@ public class LibrarySystem {
             return memberId.equals(member.memberId);
         }
         
+        @Override
+        public int hashCode() {
+            return memberId.hashCode();
+        }
+        
         @Override
         public String toString() {
             return String.format("%s (ID: %s) - %s", name, memberId, email);
@@ -125,6 +135,11 @@ public class LibrarySystem {
             return book.equals(record.book) && member.equals(record.member);
         }
         
+        @Override
+        public int hashCode() {
+            return java.util.Objects.hash(book, member);
+        }
+        
         @Override
         public String toString() {
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
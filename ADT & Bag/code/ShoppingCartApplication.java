@@ -27,6 +27,11 @@ public class ShoppingCartApplication {
                    category.equals(item.category);
         }
         
+        @Override
+        public int hashCode() {
+            return java.util.Objects.hash(name, price, category);
+        }
+        
         @Override
         public String toString() {
             return String.format("%s ($%.2f) - %s", name, price, category);
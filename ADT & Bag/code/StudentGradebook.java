@@ -54,6 +54,11 @@ public class StudentGradebook {
                    date.equals(grade.date);
         }
         
+        @Override
+        public int hashCode() {
+            return java.util.Objects.hash(assignmentName, category, date);
+        }
+        
         @Override
         public String toString() {
             return String.format("%-20s [%s] %.1f/%.1f (%.1f%%) - %s", 
@@ -200,6 +205,11 @@ public class StudentGradebook {
             return studentId.equals(student.studentId);
         }
         
+        @Override
+        public int hashCode() {
+            return studentId.hashCode();
+        }
+        
         @Override
         public String toString() {
             return String.format("%s (%s) - %s - Overall: %.1f%% (%s)", 
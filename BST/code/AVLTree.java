@@ -0,0 +1,602 @@
+public class AVLTree<E extends Comparable<E>> extends BST<E> {
+  /** Create an empty AVL tree */
+  public AVLTree() {
+  }
+
+  /** Create a balanced AVL tree from an array of objects, see load */
+  public static <E extends Comparable<E>> AVLTree<E> of(E[] objects) {
+    AVLTree<E> tree = new AVLTree<E>();
+    tree.load(objects);
+    return tree;
+  }
+
+  @Override /** Override createNewNode to create an AVLTreeNode */
+  protected AVLTreeNode<E> createNewNode(E e) {
+    return new AVLTreeNode<E>(e);
+  }
+
+  @Override /** Insert an element and rebalance if necessary */
+  public boolean insert(E e) {
+    boolean successful = super.insert(e);
+    if (!successful)
+      return false; // e is already in the tree
+    else {
+      balancePath(e); // Balance from e to the root if necessary
+    }
+
+    return true; // e is inserted
+  }
+
+  /** Update the height of a specified node. Called for every node on
+   * the path of an insert or delete and for every rotated node, so
+   * subclasses can override it to maintain other subtree fields */
+  protected void updateHeight(AVLTreeNode<E> node) {
+    if (node.left == null && node.right == null) // node is a leaf
+      node.height = 0;
+    else if (node.left == null) // node has no left subtree
+      node.height = 1 + ((AVLTreeNode<E>)(node.right)).height;
+    else if (node.right == null) // node has no right subtree
+      node.height = 1 + ((AVLTreeNode<E>)(node.left)).height;
+    else
+      node.height = 1 +
+        Math.max(((AVLTreeNode<E>)(node.right)).height,
+        ((AVLTreeNode<E>)(node.left)).height);
+  }
+
+  @Override /** Set the height of a node made by buildBalanced */
+  protected void updateNode(TreeNode<E> node) {
+    updateHeight((AVLTreeNode<E>)node);
+  }
+
+  /** Balance the nodes in the path from the specified
+   * node to the root if necessary
+   */
+  private void balancePath(E e) {
+    java.util.ArrayList<TreeNode<E>> path = path(e);
+    for (int i = path.size() - 1; i >= 0; i--) {
+      AVLTreeNode<E> A = (AVLTreeNode<E>)(path.get(i));
+      updateHeight(A);
+      AVLTreeNode<E> parentOfA = (A == root) ? null :
+        (AVLTreeNode<E>)(path.get(i - 1));
+
+      switch (balanceFactor(A)) {
+        case -2:
+          if (balanceFactor((AVLTreeNode<E>)A.left) <= 0) {
+            balanceLL(A, parentOfA); // Perform LL rotation
+          }
+          else {
+            balanceLR(A, parentOfA); // Perform LR rotation
+          }
+          break;
+        case +2:
+          if (balanceFactor((AVLTreeNode<E>)A.right) >= 0) {
+            balanceRR(A, parentOfA); // Perform RR rotation
+          }
+          else {
+            balanceRL(A, parentOfA); // Perform RL rotation
+          }
+      }
+    }
+  }
+
+  /** Return the balance factor of the node */
+  private int balanceFactor(AVLTreeNode<E> node) {
+    if (node.right == null) // node has no right subtree
+      return -node.height;
+    else if (node.left == null) // node has no left subtree
+      return +node.height;
+    else
+      return ((AVLTreeNode<E>)node.right).height -
+        ((AVLTreeNode<E>)node.left).height;
+  }
+
+  /** Balance LL (see Figure 26.2) */
+  private void balanceLL(TreeNode<E> A, TreeNode<E> parentOfA) {
+    TreeNode<E> B = A.left; // A is left-heavy and B is left-heavy
+
+    if (A == root) {
+      root = B;
+    }
+    else {
+      if (parentOfA.left == A) {
+        parentOfA.left = B;
+      }
+      else {
+        parentOfA.right = B;
+      }
+    }
+
+    A.left = B.right; // Make T2 the left subtree of A
+    B.right = A; // Make A the left child of B
+    updateHeight((AVLTreeNode<E>)A);
+    updateHeight((AVLTreeNode<E>)B);
+    rotations++;
+  }
+
+  /** Balance LR (see Figure 26.4) */
+  private void balanceLR(TreeNode<E> A, TreeNode<E> parentOfA) {
+    TreeNode<E> B = A.left; // A is left-heavy
+    TreeNode<E> C = B.right; // B is right-heavy
+
+    if (A == root) {
+      root = C;
+    }
+    else {
+      if (parentOfA.left == A) {
+        parentOfA.left = C;
+      }
+      else {
+        parentOfA.right = C;
+      }
+    }
+
+    A.left = C.right; // Make T3 the left subtree of A
+    B.right = C.left; // Make T2 the right subtree of B
+    C.left = B;
+    C.right = A;
+
+    // Adjust heights
+    updateHeight((AVLTreeNode<E>)A);
+    updateHeight((AVLTreeNode<E>)B);
+    updateHeight((AVLTreeNode<E>)C);
+    rotations += 2; // A double rotation
+  }
+
+  /** Balance RR (see Figure 26.3) */
+  private void balanceRR(TreeNode<E> A, TreeNode<E> parentOfA) {
+    TreeNode<E> B = A.right; // A is right-heavy and B is right-heavy
+
+    if (A == root) {
+      root = B;
+    }
+    else {
+      if (parentOfA.left == A) {
+        parentOfA.left = B;
+      }
+      else {
+        parentOfA.right = B;
+      }
+    }
+
+    A.right = B.left; // Make T2 the right subtree of A
+    B.left = A;
+    updateHeight((AVLTreeNode<E>)A);
+    updateHeight((AVLTreeNode<E>)B);
+    rotations++;
+  }
+
+  /** Balance RL (see Figure 26.5) */
+  private void balanceRL(TreeNode<E> A, TreeNode<E> parentOfA) {
+    TreeNode<E> B = A.right; // A is right-heavy
+    TreeNode<E> C = B.left; // B is left-heavy
+
+    if (A == root) {
+      root = C;
+    }
+    else {
+      if (parentOfA.left == A) {
+        parentOfA.left = C;
+      }
+      else {
+        parentOfA.right = C;
+      }
+    }
+
+    A.right = C.left; // Make T2 the right subtree of A
+    B.left = C.right; // Make T3 the left subtree of B
+    C.left = A;
+    C.right = B;
+
+    // Adjust heights
+    updateHeight((AVLTreeNode<E>)A);
+    updateHeight((AVLTreeNode<E>)B);
+    updateHeight((AVLTreeNode<E>)C);
+    rotations += 2; // A double rotation
+  }
+
+  @Override /** Delete an element from the AVL tree.
+   * Return true if the element is deleted successfully
+   * Return false if the element is not in the tree */
+  public boolean delete(E element) {
+    if (root == null)
+      return false; // Element is not in the tree
+
+    // Locate the node to be deleted and also locate its parent node
+    TreeNode<E> parent = null;
+    TreeNode<E> current = root;
+    while (current != null) {
+      if (element.compareTo(current.element) < 0) {
+        parent = current;
+        current = current.left;
+      }
+      else if (element.compareTo(current.element) > 0) {
+        parent = current;
+        current = current.right;
+      }
+      else
+        break; // Element is in the tree pointed by current
+    }
+
+    if (current == null)
+      return false; // Element is not in the tree
+
+    // Case 1: current has no left children (See Figure 23.6)
+    if (current.left == null) {
+      // Connect the parent with the right child of the current node
+      if (parent == null) {
+        root = current.right;
+      }
+      else {
+        if (element.compareTo(parent.element) < 0)
+          parent.left = current.right;
+        else
+          parent.right = current.right;
+
+        // Balance the tree if necessary
+        balancePath(parent.element);
+      }
+    }
+    else {
+      // Case 2: The current node has a left child
+      // Locate the rightmost node in the left subtree of
+      // the current node and also its parent
+      TreeNode<E> parentOfRightMost = current;
+      TreeNode<E> rightMost = current.left;
+
+      while (rightMost.right != null) {
+        parentOfRightMost = rightMost;
+        rightMost = rightMost.right; // Keep going to the right
+      }
+
+      // Replace the element in current by the element in rightMost
+      moveElement(rightMost, current);
+
+      // Eliminate rightmost node
+      if (parentOfRightMost.right == rightMost)
+        parentOfRightMost.right = rightMost.left;
+      else
+        // Special case: parentOfRightMost is current
+        parentOfRightMost.left = rightMost.left;
+
+      // Balance the tree if necessary
+      balancePath(parentOfRightMost.element);
+    }
+
+    size--;
+    return true; // Element deleted
+  }
+
+  // Set operations by split and join (Blelloch, Ferizovic and Sun,
+  // "Just Join for Parallel Ordered Sets"). Each operation recurses on
+  // the nodes of the other tree, splitting this tree at their elements,
+  // and takes O(m log(n/m + 1)) work for trees of sizes m <= n. The two
+  // halves of a large recursion are forked onto the common ForkJoinPool.
+  // This tree's nodes are reused for the result; the other tree is not
+  // changed, so elements taken from it are copied into new nodes
+
+  private static final int UNION = 0;
+  private static final int INTERSECTION = 1;
+  private static final int DIFFERENCE = 2;
+
+  // Subtrees of the other tree at most this high are handled by the
+  // current thread; a height of 10 means at least about 100 elements
+  private static final int SEQUENTIAL_HEIGHT = 10;
+
+  /** Add the elements of another tree to this tree. For trees with
+   * node data, such as MultisetTree, an element in both trees keeps the
+   * larger count; a tree without node data holds every element once */
+  public void union(AVLTree<E> other) {
+    if (other != this) {
+      Result<E> result = setOperation(UNION, other);
+      size += result.count;
+      afterUnion(result.data);
+    }
+  }
+
+  /** Keep only the elements that are also in another tree. For trees
+   * with node data an element keeps the smaller of its two counts */
+  public void intersection(AVLTree<E> other) {
+    if (other != this) {
+      Result<E> result = setOperation(INTERSECTION, other);
+      size = result.count;
+      afterIntersection(result.data);
+    }
+  }
+
+  /** Remove the elements that are in another tree. For trees with node
+   * data the count of the other tree is subtracted from each element,
+   * which goes when its count reaches 0 */
+  public void difference(AVLTree<E> other) {
+    if (other == this)
+      clear();
+    else {
+      Result<E> result = setOperation(DIFFERENCE, other);
+      size -= result.count;
+      afterDifference(result.data);
+    }
+  }
+
+  /** Called after union with the total node data added, see hasNodeData */
+  protected void afterUnion(int added) {
+  }
+
+  /** Called after intersection with the total node data kept */
+  protected void afterIntersection(int kept) {
+  }
+
+  /** Called after difference with the total node data removed */
+  protected void afterDifference(int removed) {
+  }
+
+  /** Run a set operation between this tree and other, and make the
+   * result the root of this tree */
+  private Result<E> setOperation(int operation, AVLTree<E> other) {
+    Result<E> result;
+    if (height(other.root) > SEQUENTIAL_HEIGHT)
+      result = java.util.concurrent.ForkJoinPool.commonPool().invoke(
+        new SetOperationTask(operation, root, other, other.root));
+    else
+      result = setOperation(operation, root, other, other.root);
+    root = result.root;
+    return result;
+  }
+
+  /** Apply an operation to t1, a subtree of this tree, and t2, a
+   * subtree of the other tree. The count in the result is the number
+   * of nodes added for a union, kept for an intersection and removed
+   * for a difference, and the data is the node data added, kept or
+   * removed. Without node data every node counts as 1 */
+  private Result<E> setOperation(int operation, TreeNode<E> t1,
+      AVLTree<E> other, TreeNode<E> t2) {
+    if (t2 == null)
+      return new Result<E>(operation == INTERSECTION ? null : t1, 0, 0);
+    if (t1 == null)
+      return operation == UNION ? copy(other, t2) : new Result<E>(null, 0, 0);
+
+    Split<E> split = split(t1, t2.element);
+
+    // Handle the left halves in another task if they are large
+    SetOperationTask leftTask = null;
+    Result<E> left = null;
+    if (height(t2) > SEQUENTIAL_HEIGHT) {
+      leftTask = new SetOperationTask(operation, split.left, other, t2.left);
+      leftTask.fork();
+    }
+    else
+      left = setOperation(operation, split.left, other, t2.left);
+    Result<E> right = setOperation(operation, split.right, other, t2.right);
+    if (leftTask != null)
+      left = leftTask.join();
+
+    int count = left.count + right.count;
+    int data = left.data + right.data;
+    TreeNode<E> node = split.node;
+    int mine = node == null ? 0 : nodeData(this, node);
+    int theirs = nodeData(other, t2);
+    switch (operation) {
+      case UNION:
+        if (node == null) {
+          node = createNewNode(t2.element);
+          setData(node, theirs);
+          return new Result<E>(join(left.root, node, right.root),
+            count + 1, data + theirs);
+        }
+        setData(node, Math.max(mine, theirs));
+        return new Result<E>(join(left.root, node, right.root),
+          count, data + Math.max(mine, theirs) - mine);
+      case INTERSECTION:
+        if (node == null)
+          return new Result<E>(join2(left.root, right.root), count, data);
+        setData(node, Math.min(mine, theirs));
+        return new Result<E>(join(left.root, node, right.root),
+          count + 1, data + Math.min(mine, theirs));
+      default: // DIFFERENCE
+        if (node == null)
+          return new Result<E>(join2(left.root, right.root), count, data);
+        if (mine > theirs) {
+          setData(node, mine - theirs);
+          return new Result<E>(join(left.root, node, right.root),
+            count, data + theirs);
+        }
+        return new Result<E>(join2(left.root, right.root),
+          count + 1, data + mine);
+    }
+  }
+
+  /** Return the node data of a node of a tree, 1 if it has none */
+  private static <E extends Comparable<E>> int nodeData(AVLTree<E> tree,
+      TreeNode<E> node) {
+    return tree.hasNodeData() ? tree.getNodeData(node) : 1;
+  }
+
+  /** Set the node data of a node of this tree if it has any */
+  private void setData(TreeNode<E> node, int data) {
+    if (hasNodeData())
+      setNodeData(node, data);
+  }
+
+  /** Copy a subtree of another tree into new nodes of this tree */
+  private Result<E> copy(AVLTree<E> other, TreeNode<E> t) {
+    if (t == null)
+      return new Result<E>(null, 0, 0);
+    Result<E> left = copy(other, t.left);
+    Result<E> right = copy(other, t.right);
+    TreeNode<E> node = createNewNode(t.element);
+    int data = nodeData(other, t);
+    setData(node, data);
+    return new Result<E>(link(left.root, node, right.root),
+      left.count + right.count + 1, left.data + right.data + data);
+  }
+
+  /** Split a subtree into the elements less than e and those greater
+   * than e. The node holding e, if any, is returned separately */
+  private Split<E> split(TreeNode<E> t, E e) {
+    if (t == null)
+      return new Split<E>(null, null, null);
+
+    int cmp = e.compareTo(t.element);
+    if (cmp == 0)
+      return new Split<E>(t.left, t, t.right);
+    else if (cmp < 0) {
+      Split<E> split = split(t.left, e);
+      split.right = join(split.right, t, t.right);
+      return split;
+    }
+    else {
+      Split<E> split = split(t.right, e);
+      split.left = join(t.left, t, split.left);
+      return split;
+    }
+  }
+
+  /** Join two AVL subtrees and a node whose element lies between them
+   * into one AVL subtree, in O(difference of heights) */
+  private TreeNode<E> join(TreeNode<E> left, TreeNode<E> node, TreeNode<E> right) {
+    if (height(left) > height(right) + 1)
+      return joinRight(left, node, right);
+    else if (height(right) > height(left) + 1)
+      return joinLeft(left, node, right);
+    else
+      return link(left, node, right);
+  }
+
+  /** Join when left is higher: walk down its right spine to a subtree
+   * as high as right, link there and rebalance on the way back up */
+  private TreeNode<E> joinRight(TreeNode<E> left, TreeNode<E> node, TreeNode<E> right) {
+    TreeNode<E> l = left.left;
+    TreeNode<E> c = left.right;
+    if (height(c) <= height(right) + 1) {
+      TreeNode<E> t = link(c, node, right);
+      if (height(t) <= height(l) + 1)
+        return link(l, left, t);
+      return rotateLeft(link(l, left, rotateRight(t))); // Double rotation
+    }
+
+    TreeNode<E> t = joinRight(c, node, right);
+    TreeNode<E> joined = link(l, left, t);
+    return height(t) <= height(l) + 1 ? joined : rotateLeft(joined);
+  }
+
+  /** Join when right is higher, the mirror image of joinRight */
+  private TreeNode<E> joinLeft(TreeNode<E> left, TreeNode<E> node, TreeNode<E> right) {
+    TreeNode<E> r = right.right;
+    TreeNode<E> c = right.left;
+    if (height(c) <= height(left) + 1) {
+      TreeNode<E> t = link(left, node, c);
+      if (height(t) <= height(r) + 1)
+        return link(t, right, r);
+      return rotateRight(link(rotateLeft(t), right, r)); // Double rotation
+    }
+
+    TreeNode<E> t = joinLeft(left, node, c);
+    TreeNode<E> joined = link(t, right, r);
+    return height(t) <= height(r) + 1 ? joined : rotateRight(joined);
+  }
+
+  /** Join two subtrees with all elements of left less than those of
+   * right, using the largest element of left as the middle node */
+  private TreeNode<E> join2(TreeNode<E> left, TreeNode<E> right) {
+    if (left == null)
+      return right;
+    Split<E> last = splitLast(left);
+    return join(last.left, last.node, right);
+  }
+
+  /** Remove the node with the largest element from a subtree */
+  private Split<E> splitLast(TreeNode<E> t) {
+    if (t.right == null)
+      return new Split<E>(t.left, t, null);
+    Split<E> split = splitLast(t.right);
+    split.left = join(t.left, t, split.left);
+    return split;
+  }
+
+  /** Make left and right the children of node and update it */
+  private TreeNode<E> link(TreeNode<E> left, TreeNode<E> node, TreeNode<E> right) {
+    node.left = left;
+    node.right = right;
+    updateHeight((AVLTreeNode<E>)node);
+    return node;
+  }
+
+  /** Rotate the right child of node up and return it */
+  private TreeNode<E> rotateLeft(TreeNode<E> node) {
+    TreeNode<E> child = node.right;
+    link(node.left, node, child.left);
+    return link(node, child, child.right);
+  }
+
+  /** Rotate the left child of node up and return it */
+  private TreeNode<E> rotateRight(TreeNode<E> node) {
+    TreeNode<E> child = node.left;
+    link(child.right, node, node.right);
+    return link(child.left, child, node);
+  }
+
+  /** Return the height of a subtree, -1 if it is empty */
+  private int height(TreeNode<E> node) {
+    return node == null ? -1 : ((AVLTreeNode<E>)node).height;
+  }
+
+  /** The result of split: the subtrees of elements less than and
+   * greater than the split element, and the node holding it or null */
+  private static class Split<E extends Comparable<E>> {
+    TreeNode<E> left;
+    TreeNode<E> node;
+    TreeNode<E> right;
+
+    Split(TreeNode<E> left, TreeNode<E> node, TreeNode<E> right) {
+      this.left = left;
+      this.node = node;
+      this.right = right;
+    }
+  }
+
+  /** The root of the result of a set operation, its node count and
+   * its node data total */
+  private static class Result<E extends Comparable<E>> {
+    final TreeNode<E> root;
+    final int count;
+    final int data;
+
+    Result(TreeNode<E> root, int count, int data) {
+      this.root = root;
+      this.count = count;
+      this.data = data;
+    }
+  }
+
+  /** Runs setOperation on a pair of subtrees in a ForkJoinPool */
+  private class SetOperationTask
+      extends java.util.concurrent.RecursiveTask<Result<E>> {
+    private static final long serialVersionUID = 1L;
+
+    private final int operation;
+    private final TreeNode<E> t1;
+    private final AVLTree<E> other;
+    private final TreeNode<E> t2;
+
+    SetOperationTask(int operation, TreeNode<E> t1, AVLTree<E> other,
+        TreeNode<E> t2) {
+      this.operation = operation;
+      this.t1 = t1;
+      this.other = other;
+      this.t2 = t2;
+    }
+
+    @Override
+    protected Result<E> compute() {
+      return setOperation(operation, t1, other, t2);
+    }
+  }
+
+  /** AVLTreeNode is TreeNode plus height */
+  protected static class AVLTreeNode<E extends Comparable<E>>
+      extends BST.TreeNode<E> {
+    protected int height = 0; // New data field
+
+    public AVLTreeNode(E e) {
+      super(e);
+    }
+  }
+}
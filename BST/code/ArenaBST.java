@@ -0,0 +1,392 @@
+/** A binary search tree whose nodes live in parallel arrays instead of
+ * TreeNode objects. Node i holds elements[i] and the indexes left[i]
+ * and right[i] of its children, with NIL for no child. Deleted nodes
+ * go on a free list threaded through left[], and inserts reuse them
+ * before growing the arrays, so once the arrays are large enough
+ * inserts and deletes allocate nothing and leave no garbage.
+ *
+ * The algorithms are those of BST. createNewNode cannot be reused
+ * here since nodes are indexes, not objects; newNode and freeNode
+ * play its role and can be overridden to track the arena. */
+public class ArenaBST<E extends Comparable<E>> extends AbstractTree<E> {
+  protected static final int NIL = -1;
+  private static final int DEFAULT_CAPACITY = 16;
+
+  protected Object[] elements;
+  protected int[] left;
+  protected int[] right;
+  protected int root = NIL;
+  protected int size = 0;
+  private int used = 0;       // Slots [0, used) have been handed out once
+  private int freeList = NIL; // First free slot below used
+
+  /** Create an empty tree */
+  public ArenaBST() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /** Create an empty tree with room for capacity nodes */
+  public ArenaBST(int capacity) {
+    capacity = Math.max(capacity, 1);
+    elements = new Object[capacity];
+    left = new int[capacity];
+    right = new int[capacity];
+  }
+
+  /** Create a balanced tree from an array of objects */
+  public ArenaBST(E[] objects) {
+    this(objects.length);
+    E[] sorted = java.util.Arrays.copyOf(objects, objects.length);
+    java.util.Arrays.sort(sorted);
+
+    // Remove duplicates, keeping the distinct elements at the front
+    int count = 0;
+    for (int i = 0; i < sorted.length; i++)
+      if (count == 0 || sorted[count - 1].compareTo(sorted[i]) != 0)
+        sorted[count++] = sorted[i];
+
+    root = buildBalanced(sorted, 0, count - 1);
+    size = count;
+  }
+
+  /** Build a perfectly balanced subtree from sorted[lo..hi] */
+  private int buildBalanced(E[] sorted, int lo, int hi) {
+    if (lo > hi) return NIL;
+
+    int mid = (lo + hi) >>> 1;
+    int node = newNode(sorted[mid]);
+    left[node] = buildBalanced(sorted, lo, mid - 1);
+    right[node] = buildBalanced(sorted, mid + 1, hi);
+    return node;
+  }
+
+  /** Take a slot for a new leaf holding e, from the free list if
+   * possible, and return its index */
+  protected int newNode(E e) {
+    int node;
+    if (freeList != NIL) {
+      node = freeList;
+      freeList = left[node];
+    }
+    else {
+      if (used == elements.length)
+        grow();
+      node = used++;
+    }
+
+    elements[node] = e;
+    left[node] = NIL;
+    right[node] = NIL;
+    return node;
+  }
+
+  /** Put a slot on the free list */
+  protected void freeNode(int node) {
+    elements[node] = null; // Let the element be garbage collected
+    left[node] = freeList;
+    freeList = node;
+  }
+
+  /** Double the capacity of the arrays */
+  private void grow() {
+    int capacity = elements.length * 2;
+    elements = java.util.Arrays.copyOf(elements, capacity);
+    left = java.util.Arrays.copyOf(left, capacity);
+    right = java.util.Arrays.copyOf(right, capacity);
+  }
+
+  /** Return the number of nodes the arrays can hold */
+  public int getCapacity() {
+    return elements.length;
+  }
+
+  @SuppressWarnings("unchecked")
+  private E element(int node) {
+    return (E)elements[node];
+  }
+
+  @Override /** Returns true if the element is in the tree */
+  public boolean search(E e) {
+    int current = root; // Start from the root
+
+    while (current != NIL) {
+      int cmp = e.compareTo(element(current));
+      if (cmp < 0)
+        current = left[current];
+      else if (cmp > 0)
+        current = right[current];
+      else // element matches elements[current]
+        return true; // Element is found
+    }
+
+    return false;
+  }
+
+  @Override /** Insert element e into the binary tree
+   * Return true if the element is inserted successfully */
+  public boolean insert(E e) {
+    if (root == NIL)
+      root = newNode(e); // Create a new root
+    else {
+      // Locate the parent node
+      int parent = NIL;
+      int current = root;
+      int cmp = 0;
+      while (current != NIL) {
+        cmp = e.compareTo(element(current));
+        parent = current;
+        if (cmp < 0)
+          current = left[current];
+        else if (cmp > 0)
+          current = right[current];
+        else
+          return false; // Duplicate node not inserted
+      }
+
+      // Create the new node and attach it to the parent node. newNode
+      // may grow the arrays, so index them only after it returns
+      int node = newNode(e);
+      if (cmp < 0)
+        left[parent] = node;
+      else
+        right[parent] = node;
+    }
+
+    size++;
+    return true; // Element inserted successfully
+  }
+
+  @Override /** Delete an element from the binary tree.
+   * Return true if the element is deleted successfully
+   * Return false if the element is not in the tree */
+  public boolean delete(E e) {
+    // Locate the node to be deleted and also locate its parent node
+    int parent = NIL;
+    int current = root;
+    while (current != NIL) {
+      int cmp = e.compareTo(element(current));
+      if (cmp == 0)
+        break; // Element is in the tree at current
+      parent = current;
+      current = cmp < 0 ? left[current] : right[current];
+    }
+
+    if (current == NIL)
+      return false; // Element is not in the tree
+
+    // Case 1: current has no left child
+    if (left[current] == NIL) {
+      // Connect the parent with the right child of the current node
+      if (parent == NIL)
+        root = right[current];
+      else if (left[parent] == current)
+        left[parent] = right[current];
+      else
+        right[parent] = right[current];
+      freeNode(current);
+    }
+    else {
+      // Case 2: The current node has a left child
+      // Locate the rightmost node in the left subtree of
+      // the current node and also its parent
+      int parentOfRightMost = current;
+      int rightMost = left[current];
+
+      while (right[rightMost] != NIL) {
+        parentOfRightMost = rightMost;
+        rightMost = right[rightMost]; // Keep going to the right
+      }
+
+      // Replace the element in current by the element in rightMost
+      elements[current] = elements[rightMost];
+
+      // Eliminate rightmost node
+      if (right[parentOfRightMost] == rightMost)
+        right[parentOfRightMost] = left[rightMost];
+      else
+        // Special case: parentOfRightMost == current
+        left[parentOfRightMost] = left[rightMost];
+      freeNode(rightMost);
+    }
+
+    size--;
+    return true; // Element deleted successfully
+  }
+
+  @Override /** Get the number of elements in the tree */
+  public int getSize() {
+    return size;
+  }
+
+  /** Remove all elements from the tree. The arrays are kept */
+  public void clear() {
+    java.util.Arrays.fill(elements, 0, used, null);
+    root = NIL;
+    size = 0;
+    used = 0;
+    freeList = NIL;
+  }
+
+  @Override /** Inorder traversal from the root */
+  public void inorder() {
+    inorder(root);
+  }
+
+  /** Inorder traversal from a subtree */
+  protected void inorder(int node) {
+    if (node == NIL) return;
+    inorder(left[node]);
+    System.out.print(elements[node] + " ");
+    inorder(right[node]);
+  }
+
+  @Override /** Postorder traversal from the root */
+  public void postorder() {
+    postorder(root);
+  }
+
+  /** Postorder traversal from a subtree */
+  protected void postorder(int node) {
+    if (node == NIL) return;
+    postorder(left[node]);
+    postorder(right[node]);
+    System.out.print(elements[node] + " ");
+  }
+
+  @Override /** Preorder traversal from the root */
+  public void preorder() {
+    preorder(root);
+  }
+
+  /** Preorder traversal from a subtree */
+  protected void preorder(int node) {
+    if (node == NIL) return;
+    System.out.print(elements[node] + " ");
+    preorder(left[node]);
+    preorder(right[node]);
+  }
+
+  @Override /** Return the greatest element less than or equal to e,
+   * or null if there is no such element */
+  public E floor(E e) {
+    return closest(e, true, true);
+  }
+
+  @Override /** Return the least element greater than or equal to e,
+   * or null if there is no such element */
+  public E ceiling(E e) {
+    return closest(e, false, true);
+  }
+
+  @Override /** Return the least element strictly greater than e,
+   * or null if there is no such element */
+  public E higher(E e) {
+    return closest(e, false, false);
+  }
+
+  @Override /** Return the greatest element strictly less than e,
+   * or null if there is no such element */
+  public E lower(E e) {
+    return closest(e, true, false);
+  }
+
+  /** Search for the closest element below (or above) e, allowing
+   * e itself if inclusive is true. One root-to-leaf walk */
+  private E closest(E e, boolean below, boolean inclusive) {
+    E best = null;
+    int current = root;
+    while (current != NIL) {
+      int cmp = e.compareTo(element(current));
+      if (cmp == 0 && inclusive)
+        return element(current);
+
+      if (below ? cmp > 0 : cmp < 0) {
+        best = element(current); // A candidate, look for a closer one
+        current = below ? right[current] : left[current];
+      }
+      else
+        current = below ? left[current] : right[current];
+    }
+
+    return best;
+  }
+
+  @Override /** Obtain an iterator. Use inorder. */
+  public java.util.Iterator<E> iterator() {
+    return new InorderIterator(null, null);
+  }
+
+  @Override /** Obtain an inorder iterator over the elements e with
+   * lo <= e <= hi */
+  public java.util.Iterator<E> subTree(E lo, E hi) {
+    return new InorderIterator(lo, hi);
+  }
+
+  // Inner class InorderIterator
+  // Lazy inorder walk with a stack of node indexes, as in BST
+  private class InorderIterator implements java.util.Iterator<E> {
+    private int[] stack = new int[16]; // Nodes still to be visited
+    private int top = 0;               // Number of nodes on the stack
+    private E lo; // Smallest element to visit, null for no bound
+    private E hi; // Largest element to visit, null for no bound
+    private E lastReturned = null; // Element returned by the last next()
+
+    public InorderIterator(E lo, E hi) {
+      this.lo = lo;
+      this.hi = hi;
+      seek(); // Start at the smallest element in range
+    }
+
+    /** Fill the stack with the path to the smallest element that is
+     * at least lo and, once an element was returned, after lastReturned */
+    private void seek() {
+      top = 0;
+      int current = root;
+      while (current != NIL) {
+        E e = element(current);
+        if ((lastReturned == null || lastReturned.compareTo(e) < 0)
+            && (lo == null || lo.compareTo(e) <= 0)) {
+          push(current); // current is still to be visited
+          current = left[current];
+        }
+        else
+          current = right[current]; // current and its left subtree are skipped
+      }
+    }
+
+    private void push(int node) {
+      if (top == stack.length)
+        stack = java.util.Arrays.copyOf(stack, top * 2);
+      stack[top++] = node;
+    }
+
+    @Override /** More elements for traversing? */
+    public boolean hasNext() {
+      return top > 0
+        && (hi == null || element(stack[top - 1]).compareTo(hi) <= 0);
+    }
+
+    @Override /** Get the current element and move to the next */
+    public E next() {
+      if (!hasNext())
+        throw new java.util.NoSuchElementException();
+
+      int node = stack[--top];
+      // The successor is the leftmost node on the right
+      for (int current = right[node]; current != NIL; current = left[current])
+        push(current);
+      lastReturned = element(node);
+      return lastReturned;
+    }
+
+    @Override /** Remove the element returned by the last call to next() */
+    public void remove() {
+      if (lastReturned == null)
+        throw new IllegalStateException();
+
+      delete(lastReturned); // Delete the current element
+      seek(); // delete may move elements between nodes: search again
+      lastReturned = null;
+    }
+  }
+}
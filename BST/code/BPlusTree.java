@@ -0,0 +1,484 @@
+/** A B+ tree. Every node holds up to fanout - 1 sorted keys in one
+ * array, so a search visits about log(n) / log(fanout) nodes instead
+ * of log2(n), and scans a small packed array in each. All elements
+ * live in the leaves; internal nodes only hold separator keys. The
+ * leaves are linked from left to right, so range scans and iteration
+ * walk arrays without going back up the tree. */
+public class BPlusTree<E extends Comparable<E>> extends AbstractTree<E> {
+  public static final int DEFAULT_FANOUT = 32;
+
+  private final int maxKeys; // Most keys in a node
+  private final int minKeys; // Fewest keys in a node other than the root
+  private Node root;
+  private int size = 0;
+
+  /** Create an empty B+ tree with the default fanout */
+  public BPlusTree() {
+    this(DEFAULT_FANOUT);
+  }
+
+  /** Create an empty B+ tree where internal nodes have up to fanout
+   * children and leaves hold up to fanout - 1 elements */
+  public BPlusTree(int fanout) {
+    if (fanout < 4)
+      throw new IllegalArgumentException("Fanout must be at least 4");
+    maxKeys = fanout - 1;
+    minKeys = maxKeys / 2;
+    root = new Leaf(maxKeys);
+  }
+
+  /** Create a B+ tree from an array of objects */
+  public BPlusTree(E[] objects) {
+    this(DEFAULT_FANOUT);
+    for (int i = 0; i < objects.length; i++)
+      insert(objects[i]);
+  }
+
+  @Override /** Returns true if the element is in the tree */
+  public boolean search(E e) {
+    Leaf leaf = findLeaf(e);
+    int i = lowerBound(leaf, e);
+    return i < leaf.count && compare(leaf.keys[i], e) == 0;
+  }
+
+  @Override /** Insert an element into the tree.
+   * Return true if the element is inserted successfully */
+  public boolean insert(E e) {
+    int oldSize = size;
+    Node sibling = insert(root, e);
+    if (sibling != null) {
+      // The root was split: grow the tree by one level
+      Internal newRoot = new Internal(maxKeys);
+      newRoot.keys[0] = splitKey;
+      newRoot.children[0] = root;
+      newRoot.children[1] = sibling;
+      newRoot.count = 1;
+      root = newRoot;
+    }
+    return size > oldSize;
+  }
+
+  // Separator key of the node returned by the last split
+  private Object splitKey;
+
+  /** Insert e into the subtree rooted at node. If the node overflows
+   * it is split; the new right sibling is returned and its separator
+   * key is left in splitKey. Otherwise null is returned */
+  private Node insert(Node node, E e) {
+    if (node instanceof Leaf) {
+      Leaf leaf = (Leaf)node;
+      int i = lowerBound(leaf, e);
+      if (i < leaf.count && compare(leaf.keys[i], e) == 0)
+        return null; // Duplicate element not inserted
+
+      insertAt(leaf.keys, leaf.count, i, e);
+      leaf.count++;
+      size++;
+      return leaf.count > maxKeys ? splitLeaf(leaf) : null;
+    }
+
+    Internal internal = (Internal)node;
+    int i = upperBound(internal, e);
+    Node sibling = insert(internal.children[i], e);
+    if (sibling == null)
+      return null;
+
+    insertAt(internal.keys, internal.count, i, splitKey);
+    insertAt(internal.children, internal.count + 1, i + 1, sibling);
+    internal.count++;
+    return internal.count > maxKeys ? splitInternal(internal) : null;
+  }
+
+  /** Move the upper half of an overfull leaf into a new leaf */
+  private Leaf splitLeaf(Leaf leaf) {
+    Leaf right = new Leaf(maxKeys);
+    int half = leaf.count / 2;
+    right.count = leaf.count - half;
+    System.arraycopy(leaf.keys, half, right.keys, 0, right.count);
+    java.util.Arrays.fill(leaf.keys, half, leaf.count, null);
+    leaf.count = half;
+
+    right.next = leaf.next;
+    leaf.next = right;
+    splitKey = right.keys[0];
+    return right;
+  }
+
+  /** Move the upper half of an overfull internal node into a new node.
+   * The middle key moves up to the parent */
+  private Internal splitInternal(Internal node) {
+    Internal right = new Internal(maxKeys);
+    int mid = node.count / 2;
+    splitKey = node.keys[mid];
+
+    right.count = node.count - mid - 1;
+    System.arraycopy(node.keys, mid + 1, right.keys, 0, right.count);
+    System.arraycopy(node.children, mid + 1, right.children, 0, right.count + 1);
+    java.util.Arrays.fill(node.keys, mid, node.count, null);
+    java.util.Arrays.fill(node.children, mid + 1, node.count + 1, null);
+    node.count = mid;
+    return right;
+  }
+
+  @Override /** Delete an element from the tree.
+   * Return true if the element is deleted successfully */
+  public boolean delete(E e) {
+    int oldSize = size;
+    delete(root, e);
+    if (root instanceof Internal && root.count == 0)
+      root = ((Internal)root).children[0]; // Shrink the tree by one level
+    return size < oldSize;
+  }
+
+  /** Delete e from the subtree rooted at node. The caller fixes the
+   * node if it ends up with fewer than minKeys keys */
+  private void delete(Node node, E e) {
+    if (node instanceof Leaf) {
+      Leaf leaf = (Leaf)node;
+      int i = lowerBound(leaf, e);
+      if (i < leaf.count && compare(leaf.keys[i], e) == 0) {
+        removeAt(leaf.keys, leaf.count, i);
+        leaf.count--;
+        size--;
+      }
+      return;
+    }
+
+    Internal internal = (Internal)node;
+    int i = upperBound(internal, e);
+    Node child = internal.children[i];
+    delete(child, e);
+    if (child.count < minKeys)
+      fixUnderflow(internal, i);
+  }
+
+  /** Give the child at index i of parent at least minKeys keys again,
+   * by borrowing a key from a sibling or merging with a sibling */
+  private void fixUnderflow(Internal parent, int i) {
+    Node child = parent.children[i];
+    Node left = i > 0 ? parent.children[i - 1] : null;
+    Node right = i < parent.count ? parent.children[i + 1] : null;
+
+    if (left != null && left.count > minKeys)
+      borrowFromLeft(parent, i, left, child);
+    else if (right != null && right.count > minKeys)
+      borrowFromRight(parent, i, child, right);
+    else if (left != null)
+      merge(parent, i - 1, left, child);
+    else
+      merge(parent, i, child, right);
+  }
+
+  /** Move one key from the left sibling into child */
+  private void borrowFromLeft(Internal parent, int i, Node left, Node child) {
+    if (child instanceof Leaf) {
+      insertAt(child.keys, child.count, 0, left.keys[left.count - 1]);
+      parent.keys[i - 1] = child.keys[0];
+    }
+    else {
+      Internal c = (Internal)child;
+      Internal l = (Internal)left;
+      insertAt(c.keys, c.count, 0, parent.keys[i - 1]);
+      insertAt(c.children, c.count + 1, 0, l.children[l.count]);
+      parent.keys[i - 1] = l.keys[l.count - 1];
+      l.children[l.count] = null;
+    }
+    left.keys[left.count - 1] = null;
+    left.count--;
+    child.count++;
+  }
+
+  /** Move one key from the right sibling into child */
+  private void borrowFromRight(Internal parent, int i, Node child, Node right) {
+    if (child instanceof Leaf) {
+      child.keys[child.count] = right.keys[0];
+      removeAt(right.keys, right.count, 0);
+      parent.keys[i] = right.keys[0];
+    }
+    else {
+      Internal c = (Internal)child;
+      Internal r = (Internal)right;
+      c.keys[c.count] = parent.keys[i];
+      c.children[c.count + 1] = r.children[0];
+      parent.keys[i] = r.keys[0];
+      removeAt(r.keys, r.count, 0);
+      removeAt(r.children, r.count + 1, 0);
+    }
+    child.count++;
+    right.count--;
+  }
+
+  /** Merge the child at index i + 1 of parent into the child at index i */
+  private void merge(Internal parent, int i, Node left, Node right) {
+    if (left instanceof Leaf) {
+      System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+      left.count += right.count;
+      ((Leaf)left).next = ((Leaf)right).next;
+    }
+    else {
+      Internal l = (Internal)left;
+      Internal r = (Internal)right;
+      l.keys[l.count] = parent.keys[i]; // The separator moves down
+      System.arraycopy(r.keys, 0, l.keys, l.count + 1, r.count);
+      System.arraycopy(r.children, 0, l.children, l.count + 1, r.count + 1);
+      l.count += r.count + 1;
+    }
+
+    removeAt(parent.keys, parent.count, i);
+    removeAt(parent.children, parent.count + 1, i + 1);
+    parent.count--;
+  }
+
+  /** Return the leaf where e is or would be stored */
+  private Leaf findLeaf(E e) {
+    Node node = root;
+    while (node instanceof Internal)
+      node = ((Internal)node).children[upperBound(node, e)];
+    return (Leaf)node;
+  }
+
+  /** Return the index of the first key >= e in a node */
+  private int lowerBound(Node node, E e) {
+    int low = 0;
+    int high = node.count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compare(node.keys[mid], e) < 0)
+        low = mid + 1;
+      else
+        high = mid;
+    }
+    return low;
+  }
+
+  /** Return the index of the first key > e in a node, which is also
+   * the index of the child to follow in an internal node */
+  private int upperBound(Node node, E e) {
+    int low = 0;
+    int high = node.count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compare(node.keys[mid], e) <= 0)
+        low = mid + 1;
+      else
+        high = mid;
+    }
+    return low;
+  }
+
+  @SuppressWarnings("unchecked")
+  private int compare(Object key, E e) {
+    return ((E)key).compareTo(e);
+  }
+
+  /** Shift array[i..count) right by one and store value at i */
+  private static void insertAt(Object[] array, int count, int i, Object value) {
+    System.arraycopy(array, i, array, i + 1, count - i);
+    array[i] = value;
+  }
+
+  /** Remove array[i] and shift array[i + 1..count) left by one */
+  private static void removeAt(Object[] array, int count, int i) {
+    System.arraycopy(array, i + 1, array, i, count - i - 1);
+    array[count - 1] = null;
+  }
+
+  @Override /** Get the number of elements in the tree */
+  public int getSize() {
+    return size;
+  }
+
+  /** Return the number of levels in the tree */
+  public int getHeight() {
+    int height = 1;
+    for (Node node = root; node instanceof Internal; node = ((Internal)node).children[0])
+      height++;
+    return height;
+  }
+
+  /** Remove all elements from the tree */
+  public void clear() {
+    root = new Leaf(maxKeys);
+    size = 0;
+  }
+
+  @Override /** Inorder traversal: print the elements in order */
+  public void inorder() {
+    for (E e: this)
+      System.out.print(e + " ");
+  }
+
+  @Override /** Preorder traversal: print every node's keys before its children */
+  public void preorder() {
+    preorder(root);
+  }
+
+  /** Preorder traversal from a subtree */
+  private void preorder(Node node) {
+    System.out.print(node + " ");
+    if (node instanceof Internal)
+      for (int i = 0; i <= node.count; i++)
+        preorder(((Internal)node).children[i]);
+  }
+
+  @Override /** Postorder traversal: print every node's keys after its children */
+  public void postorder() {
+    postorder(root);
+  }
+
+  /** Postorder traversal from a subtree */
+  private void postorder(Node node) {
+    if (node instanceof Internal)
+      for (int i = 0; i <= node.count; i++)
+        postorder(((Internal)node).children[i]);
+    System.out.print(node + " ");
+  }
+
+  @Override /** Return the greatest element less than or equal to e */
+  public E floor(E e) {
+    return below(e, true);
+  }
+
+  @Override /** Return the least element greater than or equal to e */
+  public E ceiling(E e) {
+    return above(e, true);
+  }
+
+  @Override /** Return the least element strictly greater than e */
+  public E higher(E e) {
+    return above(e, false);
+  }
+
+  @Override /** Return the greatest element strictly less than e */
+  public E lower(E e) {
+    return below(e, false);
+  }
+
+  /** Return the least element >= e (or > e), or null */
+  @SuppressWarnings("unchecked")
+  private E above(E e, boolean inclusive) {
+    Leaf leaf = findLeaf(e);
+    int i = inclusive ? lowerBound(leaf, e) : upperBound(leaf, e);
+    if (i == leaf.count) {
+      leaf = leaf.next; // The answer is the first element of the next leaf
+      i = 0;
+    }
+    return leaf == null || leaf.count == 0 ? null : (E)leaf.keys[i];
+  }
+
+  /** Return the greatest element <= e (or < e), or null */
+  @SuppressWarnings("unchecked")
+  private E below(E e, boolean inclusive) {
+    // Walk down to e's leaf, remembering the deepest subtree just to
+    // the left of the path; its last element precedes the leaf
+    Node node = root;
+    Node leftOfPath = null;
+    while (node instanceof Internal) {
+      int i = upperBound(node, e);
+      if (i > 0)
+        leftOfPath = ((Internal)node).children[i - 1];
+      node = ((Internal)node).children[i];
+    }
+
+    int i = (inclusive ? upperBound(node, e) : lowerBound(node, e)) - 1;
+    if (i >= 0)
+      return (E)node.keys[i];
+    if (leftOfPath == null)
+      return null;
+
+    while (leftOfPath instanceof Internal)
+      leftOfPath = ((Internal)leftOfPath).children[leftOfPath.count];
+    return leftOfPath.count == 0 ? null : (E)leftOfPath.keys[leftOfPath.count - 1];
+  }
+
+  @Override /** Obtain an iterator. Use inorder. */
+  public java.util.Iterator<E> iterator() {
+    Node node = root;
+    while (node instanceof Internal)
+      node = ((Internal)node).children[0];
+    return new LeafIterator((Leaf)node, 0, null);
+  }
+
+  @Override /** Obtain an inorder iterator over the elements e with
+   * lo <= e <= hi. Walks the linked leaves from lo's leaf */
+  public java.util.Iterator<E> subTree(E lo, E hi) {
+    Leaf leaf = findLeaf(lo);
+    return new LeafIterator(leaf, lowerBound(leaf, lo), hi);
+  }
+
+  // Inner class LeafIterator, walks the linked list of leaves
+  private class LeafIterator implements java.util.Iterator<E> {
+    private Leaf leaf;  // Leaf holding the next element
+    private int index;  // Index of the next element in leaf
+    private E hi;       // Largest element to visit, null for no bound
+
+    public LeafIterator(Leaf leaf, int index, E hi) {
+      this.leaf = leaf;
+      this.index = index;
+      this.hi = hi;
+      skipExhaustedLeaves();
+    }
+
+    /** Move to the next leaf while the current one has no more elements */
+    private void skipExhaustedLeaves() {
+      while (leaf != null && index >= leaf.count) {
+        leaf = leaf.next;
+        index = 0;
+      }
+    }
+
+    @Override /** More elements for traversing? */
+    public boolean hasNext() {
+      return leaf != null && (hi == null || compare(leaf.keys[index], hi) <= 0);
+    }
+
+    @Override /** Get the current element and move to the next */
+    @SuppressWarnings("unchecked")
+    public E next() {
+      if (!hasNext())
+        throw new java.util.NoSuchElementException();
+      E e = (E)leaf.keys[index++];
+      skipExhaustedLeaves();
+      return e;
+    }
+  }
+
+  /** A node holds count sorted keys. Arrays have one spare slot so a
+   * node can overflow by one element before it is split */
+  private static abstract class Node {
+    protected Object[] keys;
+    protected int count = 0;
+
+    Node(int maxKeys) {
+      keys = new Object[maxKeys + 1];
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder builder = new StringBuilder("[");
+      for (int i = 0; i < count; i++)
+        builder.append(i == 0 ? "" : " ").append(keys[i]);
+      return builder.append("]").toString();
+    }
+  }
+
+  /** Internal node: count separator keys and count + 1 children.
+   * Elements in children[i] are >= keys[i - 1] and < keys[i] */
+  private static class Internal extends Node {
+    protected Node[] children;
+
+    Internal(int maxKeys) {
+      super(maxKeys);
+      children = new Node[maxKeys + 2];
+    }
+  }
+
+  /** Leaf node: count elements and a link to the next leaf */
+  private static class Leaf extends Node {
+    protected Leaf next;
+
+    Leaf(int maxKeys) {
+      super(maxKeys);
+    }
+  }
+}
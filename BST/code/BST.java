@@ -2,15 +2,26 @@ public class BST<E extends Comparable<E>>
     extends AbstractTree<E> {
   protected TreeNode<E> root;
   protected int size = 0;
+  protected long rotations = 0; // Rotations done by subclasses to rebalance
 
   /** Create a default binary tree */
   public BST() {
   }
 
-  /** Create a binary tree from an array of objects */
+  /** Create a binary tree from an array of objects, inserted one by one
+   * in array order, so the shape follows that order. The nodes are plain
+   * TreeNodes made without calling createNewNode */
   public BST(E[] objects) {
     for (int i = 0; i < objects.length; i++)
-      insert(objects[i]);
+      insert(objects[i], false);
+  }
+
+  /** Create a perfectly balanced binary tree from an array of objects,
+   * see load */
+  public static <E extends Comparable<E>> BST<E> of(E[] objects) {
+    BST<E> tree = new BST<E>();
+    tree.load(objects);
+    return tree;
   }
 
   @Override /** Returns true if the element is in the tree */
@@ -34,8 +45,14 @@ public class BST<E extends Comparable<E>>
   @Override /** Insert element o into the binary tree
    * Return true if the element is inserted successfully */
   public boolean insert(E e) {
+    return insert(e, true);
+  }
+
+  /** Insert an element in a node from createNewNode, or in a plain
+   * TreeNode while a constructor runs and subclasses are not ready */
+  private boolean insert(E e, boolean useFactory) {
     if (root == null)
-      root = createNewNode(e); // Create a new root
+      root = newNode(e, useFactory); // Create a new root
     else {
       // Locate the parent node
       TreeNode<E> parent = null;
@@ -54,9 +71,9 @@ public class BST<E extends Comparable<E>>
 
       // Create the new node and attach it to the parent node
       if (e.compareTo(parent.element) < 0)
-        parent.left = createNewNode(e);
+        parent.left = newNode(e, useFactory);
       else
-        parent.right = createNewNode(e);
+        parent.right = newNode(e, useFactory);
     }
 
     size++;
@@ -67,6 +84,128 @@ public class BST<E extends Comparable<E>>
     return new TreeNode<E>(e);
   }
 
+  private TreeNode<E> newNode(E e, boolean useFactory) {
+    return useFactory ? createNewNode(e) : new TreeNode<E>(e);
+  }
+
+  /** Replace the elements of the tree by the elements of an array and
+   * build a perfectly balanced tree bottom-up. Takes O(n) if the array
+   * is already sorted and O(n log n) otherwise. Duplicates are ignored */
+  public void load(E[] objects) {
+    E[] sorted = java.util.Arrays.copyOf(objects, objects.length);
+    boolean isSorted = true;
+    for (int i = 1; i < sorted.length && isSorted; i++)
+      isSorted = sorted[i - 1].compareTo(sorted[i]) <= 0;
+    if (!isSorted)
+      java.util.Arrays.sort(sorted);
+
+    // Remove duplicates, keeping the distinct elements at the front
+    int count = 0;
+    for (int i = 0; i < sorted.length; i++)
+      if (count == 0 || sorted[count - 1].compareTo(sorted[i]) != 0)
+        sorted[count++] = sorted[i];
+
+    root = buildBalanced(sorted, 0, count - 1);
+    size = count;
+    afterLoad();
+  }
+
+  /** Merge the elements of another tree into this tree in O(n + m)
+   * by flattening both trees inorder and rebuilding a balanced tree */
+  public void merge(BST<E> other) {
+    E[] first = toSortedArray();
+    E[] second = other.toSortedArray();
+
+    @SuppressWarnings("unchecked")
+    E[] merged = (E[])new Comparable<?>[first.length + second.length];
+    int i = 0, j = 0, count = 0;
+    while (i < first.length || j < second.length) {
+      int cmp = i == first.length ? 1 : j == second.length ? -1
+        : first[i].compareTo(second[j]);
+      if (cmp <= 0) {
+        merged[count++] = first[i++];
+        if (cmp == 0)
+          j++; // Keep one copy of an element in both trees
+      }
+      else
+        merged[count++] = second[j++];
+    }
+
+    root = buildBalanced(merged, 0, count - 1);
+    size = count;
+    afterLoad();
+  }
+
+  /** Return a read-only copy of the tree laid out in a flat array
+   * in BFS order, for fast searches on a snapshot. O(n) */
+  public EytzingerTree<E> freeze() {
+    return new EytzingerTree<E>(toSortedArray());
+  }
+
+  /** Return the elements of the tree in increasing order */
+  protected E[] toSortedArray() {
+    @SuppressWarnings("unchecked")
+    E[] elements = (E[])new Comparable<?>[size];
+    int i = 0;
+    for (E e: this)
+      elements[i++] = e;
+    return elements;
+  }
+
+  /** Build a perfectly balanced subtree from the sorted elements
+   * sorted[lo..hi] and return its root */
+  protected TreeNode<E> buildBalanced(E[] sorted, int lo, int hi) {
+    if (lo > hi) return null;
+
+    int mid = (lo + hi) >>> 1;
+    TreeNode<E> node = createNewNode(sorted[mid]);
+    node.left = buildBalanced(sorted, lo, mid - 1);
+    node.right = buildBalanced(sorted, mid + 1, hi);
+    updateNode(node);
+    return node;
+  }
+
+  /** Called for every node made by buildBalanced once its subtrees
+   * are linked, so subclasses can set fields such as the height */
+  protected void updateNode(TreeNode<E> node) {
+  }
+
+  /** Move the element of a node that delete is about to unlink into
+   * a node that stays in the tree. Subclasses that keep other
+   * per-element fields override this to move them too */
+  protected void moveElement(TreeNode<E> from, TreeNode<E> to) {
+    to.element = from.element;
+  }
+
+  /** Called after root and size have been replaced wholesale, by load,
+   * merge or a snapshot reader, so subclasses can recompute fields they
+   * keep about the whole tree */
+  protected void afterLoad() {
+  }
+
+  /** Return true if updateNode can recompute every node field from the
+   * shape of the tree, so a tree of this class can be rebuilt node by
+   * node in a given shape. Subclasses whose nodes hold something the
+   * shape does not determine, such as a colour, return false */
+  protected boolean canRebuildShape() {
+    return true;
+  }
+
+  /** Return true if nodes hold a number for their element, such as a
+   * count, that must be saved and restored along with the element */
+  protected boolean hasNodeData() {
+    return false;
+  }
+
+  /** Return the number a node holds for its element, see hasNodeData */
+  protected int getNodeData(TreeNode<E> node) {
+    return 0;
+  }
+
+  /** Restore the number a node holds for its element, see hasNodeData */
+  protected void setNodeData(TreeNode<E> node, int data) {
+  }
+
   @Override /** Inorder traversal from the root*/
   public void inorder() {
     inorder(root);
@@ -74,10 +213,7 @@ public class BST<E extends Comparable<E>>
 
   /** Inorder traversal from a subtree */
   protected void inorder(TreeNode<E> root) {
-    if (root == null) return;
-    inorder(root.left);
-    System.out.print(root.element + " ");
-    inorder(root.right);
+    inorder(root, PRINT);
   }
 
   @Override /** Postorder traversal from the root */
@@ -87,10 +223,7 @@ public class BST<E extends Comparable<E>>
 
   /** Postorder traversal from a subtree */
   protected void postorder(TreeNode<E> root) {
-    if (root == null) return;
-    postorder(root.left);
-    postorder(root.right);
-    System.out.print(root.element + " ");
+    postorder(root, PRINT);
   }
 
   @Override /** Preorder traversal from the root */
@@ -100,10 +233,108 @@ public class BST<E extends Comparable<E>>
 
   /** Preorder traversal from a subtree */
   protected void preorder(TreeNode<E> root) {
-    if (root == null) return;
-    System.out.print(root.element + " ");
-    preorder(root.left);
-    preorder(root.right);
+    preorder(root, PRINT);
+  }
+
+  // Visitor used by the printing traversals
+  private static final TreeVisitor<Object> PRINT = e -> {
+    System.out.print(e + " ");
+    return true;
+  };
+
+  /** Inorder traversal from the root, calling the visitor for each
+   * element until it returns false. Return true if every element was
+   * visited */
+  public boolean inorder(TreeVisitor<? super E> visitor) {
+    return inorder(root, visitor);
+  }
+
+  /** Preorder traversal from the root with a visitor */
+  public boolean preorder(TreeVisitor<? super E> visitor) {
+    return preorder(root, visitor);
+  }
+
+  /** Postorder traversal from the root with a visitor */
+  public boolean postorder(TreeVisitor<? super E> visitor) {
+    return postorder(root, visitor);
+  }
+
+  /** Visit the element of a node in a preorder or postorder traversal.
+   * Return false to stop the traversal. Subclasses whose nodes stand for
+   * several occurrences of an element override it */
+  protected boolean visitNode(TreeNode<E> node, TreeVisitor<? super E> visitor) {
+    return visitor.visit(node.element);
+  }
+
+  // The traversals below are iterative with an explicit stack of at
+  // most height nodes, so degenerate trees cannot overflow the call stack
+
+  /** Inorder traversal from a subtree with a visitor */
+  protected boolean inorder(TreeNode<E> root, TreeVisitor<? super E> visitor) {
+    java.util.ArrayDeque<TreeNode<E>> stack =
+      new java.util.ArrayDeque<TreeNode<E>>();
+    TreeNode<E> current = root;
+    while (current != null || !stack.isEmpty()) {
+      while (current != null) {
+        stack.push(current);
+        current = current.left;
+      }
+      current = stack.pop();
+      if (!visitor.visit(current.element))
+        return false;
+      current = current.right;
+    }
+    return true;
+  }
+
+  /** Preorder traversal from a subtree with a visitor */
+  protected boolean preorder(TreeNode<E> root, TreeVisitor<? super E> visitor) {
+    java.util.ArrayDeque<TreeNode<E>> stack =
+      new java.util.ArrayDeque<TreeNode<E>>();
+    if (root != null)
+      stack.push(root);
+    while (!stack.isEmpty()) {
+      TreeNode<E> current = stack.pop();
+      if (!visitNode(current, visitor))
+        return false;
+      if (current.right != null)
+        stack.push(current.right);
+      if (current.left != null)
+        stack.push(current.left);
+    }
+    return true;
+  }
+
+  /** Postorder traversal from a subtree with a visitor */
+  protected boolean postorder(TreeNode<E> root, TreeVisitor<? super E> visitor) {
+    java.util.ArrayDeque<TreeNode<E>> stack =
+      new java.util.ArrayDeque<TreeNode<E>>();
+    TreeNode<E> current = root;
+    TreeNode<E> lastVisited = null;
+    while (current != null || !stack.isEmpty()) {
+      while (current != null) {
+        stack.push(current);
+        current = current.left;
+      }
+      TreeNode<E> top = stack.peek();
+      if (top.right != null && top.right != lastVisited)
+        current = top.right; // Visit the right subtree first
+      else {
+        stack.pop();
+        if (!visitNode(top, visitor))
+          return false;
+        lastVisited = top;
+      }
+    }
+    return true;
+  }
+
+  @Override /** Perform the action on every element in order */
+  public void forEach(java.util.function.Consumer<? super E> action) {
+    inorder(root, e -> {
+      action.accept(e);
+      return true;
+    });
   }
 
   /** This inner class is static, because it does not access 
@@ -123,6 +354,48 @@ public class BST<E extends Comparable<E>>
     return size;
   }
 
+  /** Return the height of the tree: the number of links on the
+   * longest path from the root, or -1 if the tree is empty. This walks
+   * the whole tree, O(n), so it is meant for occasional checks, not
+   * for calls on every operation */
+  public int getHeight() {
+    return (int)levelStatistics()[0];
+  }
+
+  /** Return the average number of links from the root to a node,
+   * 0 if the tree is empty. Like getHeight, an O(n) walk on demand */
+  public double getAverageDepth() {
+    long[] statistics = levelStatistics();
+    return size == 0 ? 0 : (double)statistics[1] / size;
+  }
+
+  /** Walk the tree level by level and return {height, sum of depths} */
+  private long[] levelStatistics() {
+    java.util.ArrayDeque<TreeNode<E>> level =
+      new java.util.ArrayDeque<TreeNode<E>>();
+    if (root != null)
+      level.add(root);
+
+    int depth = -1;
+    long depthSum = 0;
+    while (!level.isEmpty()) {
+      depth++;
+      depthSum += (long)depth * level.size();
+      for (int i = level.size(); i > 0; i--) {
+        TreeNode<E> node = level.poll();
+        if (node.left != null) level.add(node.left);
+        if (node.right != null) level.add(node.right);
+      }
+    }
+    return new long[] {depth, depthSum};
+  }
+
+  /** Return the number of rotations done so far to rebalance the tree.
+   * Always 0 for a plain BST */
+  public long getRotations() {
+    return rotations;
+  }
+
   /** Returns the root of the tree */
   public TreeNode<E> getRoot() {
     return root;
@@ -198,7 +471,7 @@ public class BST<E extends Comparable<E>>
       }
 
       // Replace the element in current by the element in rightMost
-      current.element = rightMost.element;
+      moveElement(rightMost, current);
 
       // Eliminate rightmost node
       if (parentOfRightMost.right == rightMost)
@@ -214,51 +487,257 @@ public class BST<E extends Comparable<E>>
 
   @Override /** Obtain an iterator. Use inorder. */
   public java.util.Iterator<E> iterator() {
-    return new InorderIterator();
+    return new InorderIterator(null, null);
+  }
+
+  @Override /** Obtain an inorder iterator over the elements e with
+   * lo <= e <= hi. Only the O(log n + k) nodes in range are visited */
+  public java.util.Iterator<E> subTree(E lo, E hi) {
+    return new InorderIterator(lo, hi);
+  }
+
+  @Override /** Return the greatest element less than or equal to e,
+   * or null if there is no such element */
+  public E floor(E e) {
+    return closest(e, true, true);
+  }
+
+  @Override /** Return the least element greater than or equal to e,
+   * or null if there is no such element */
+  public E ceiling(E e) {
+    return closest(e, false, true);
+  }
+
+  @Override /** Return the least element strictly greater than e,
+   * or null if there is no such element */
+  public E higher(E e) {
+    return closest(e, false, false);
+  }
+
+  @Override /** Return the greatest element strictly less than e,
+   * or null if there is no such element */
+  public E lower(E e) {
+    return closest(e, true, false);
+  }
+
+  /** Search for the closest element below (or above) e, allowing
+   * e itself if inclusive is true. One root-to-leaf walk */
+  private E closest(E e, boolean below, boolean inclusive) {
+    E best = null;
+    TreeNode<E> current = root;
+    while (current != null) {
+      int cmp = e.compareTo(current.element);
+      if (cmp == 0 && inclusive)
+        return current.element;
+
+      if (below ? cmp > 0 : cmp < 0) {
+        best = current.element; // A candidate, look for a closer one
+        current = below ? current.right : current.left;
+      }
+      else
+        current = below ? current.left : current.right;
+    }
+
+    return best;
   }
 
   // Inner class InorderIterator
+  // Walks the tree lazily with a stack holding the path of nodes still
+  // to be visited, so it uses O(height) memory and next() is O(1) amortized.
+  // Optional bounds lo and hi (null for none) restrict it to a range
   private class InorderIterator implements java.util.Iterator<E> {
-    // Store the elements in a list
-    private java.util.ArrayList<E> list =
-      new java.util.ArrayList<E>();
-    private int current = 0; // Point to the current element in list
-
-    public InorderIterator() {
-      inorder(); // Traverse binary tree and store elements in list
+    // Nodes whose element and right subtree have not been visited yet
+    private java.util.ArrayDeque<TreeNode<E>> stack =
+      new java.util.ArrayDeque<TreeNode<E>>();
+    private E lo; // Smallest element to visit, null for no bound
+    private E hi; // Largest element to visit, null for no bound
+    private E lastReturned = null; // Element returned by the last next()
+
+    public InorderIterator(E lo, E hi) {
+      this.lo = lo;
+      this.hi = hi;
+      seek(); // Start at the smallest element in range
     }
 
-    /** Inorder traversal from the root*/
-    private void inorder() {
-      inorder(root);
+    /** Fill the stack with the path to the smallest element that is
+     * at least lo and, once an element was returned, after lastReturned */
+    private void seek() {
+      stack.clear();
+      TreeNode<E> current = root;
+      while (current != null) {
+        if ((lastReturned == null || lastReturned.compareTo(current.element) < 0)
+            && (lo == null || lo.compareTo(current.element) <= 0)) {
+          stack.push(current); // current is still to be visited
+          current = current.left;
+        }
+        else
+          current = current.right; // current and its left subtree are skipped
+      }
     }
 
-    /** Inorder traversal from a subtree */
-    private void inorder(TreeNode<E> root) {
-      if (root == null)return;
-      inorder(root.left);
-      list.add(root.element);
-      inorder(root.right);
+    /** Push a node and all its left descendants onto the stack */
+    private void pushLeft(TreeNode<E> node) {
+      while (node != null) {
+        stack.push(node);
+        node = node.left;
+      }
     }
 
     @Override /** More elements for traversing? */
     public boolean hasNext() {
-      if (current < list.size())
-        return true;
-
-      return false;
+      return !stack.isEmpty()
+        && (hi == null || stack.peek().element.compareTo(hi) <= 0);
     }
 
     @Override /** Get the current element and move to the next */
     public E next() {
-      return list.get(current++);
+      if (!hasNext())
+        throw new java.util.NoSuchElementException();
+
+      TreeNode<E> node = stack.pop();
+      pushLeft(node.right); // The successor is the leftmost node on the right
+      lastReturned = node.element;
+      return lastReturned;
     }
 
-    @Override /** Remove the current element */
+    @Override /** Remove the element returned by the last call to next() */
     public void remove() {
-      delete(list.get(current)); // Delete the current element
-      list.clear(); // Clear the list
-      inorder(); // Rebuild the list
+      if (lastReturned == null)
+        throw new IllegalStateException();
+
+      delete(lastReturned); // Delete the current element
+
+      // delete may move elements between nodes (or rotate in a
+      // subclass), so rebuild the stack by searching for the successor
+      // of the removed element from the root: O(height)
+      seek();
+      lastReturned = null;
+    }
+  }
+
+  @Override /** Obtain a spliterator over the elements in order. It
+   * splits the tree at subtree roots, so a parallel stream divides the
+   * traversal between threads */
+  public java.util.Spliterator<E> spliterator() {
+    return new TreeSpliterator(root, size);
+  }
+
+  /** Return a sequential stream of the elements in order */
+  public java.util.stream.Stream<E> stream() {
+    return java.util.stream.StreamSupport.stream(spliterator(), false);
+  }
+
+  /** Return a parallel stream of the elements */
+  public java.util.stream.Stream<E> parallelStream() {
+    return java.util.stream.StreamSupport.stream(spliterator(), true);
+  }
+
+  // Inner class TreeSpliterator
+  // Covers a sequence of subtrees visited one after another. trySplit
+  // gives the first half of the subtrees to a new spliterator, or, if
+  // there is only one, splits it at its root. Once traversal has
+  // started the spliterator no longer splits
+  private class TreeSpliterator implements java.util.Spliterator<E> {
+    // Subtrees still to be visited, in order
+    private java.util.ArrayDeque<TreeNode<E>> parts =
+      new java.util.ArrayDeque<TreeNode<E>>();
+    // Inorder stack of the subtree being visited
+    private java.util.ArrayDeque<TreeNode<E>> stack =
+      new java.util.ArrayDeque<TreeNode<E>>();
+    private long estimate; // Estimated number of elements left
+
+    public TreeSpliterator(TreeNode<E> root, long estimate) {
+      if (root != null)
+        parts.add(root);
+      this.estimate = estimate;
+    }
+
+    @Override /** Split off a spliterator for a prefix of the elements */
+    public java.util.Spliterator<E> trySplit() {
+      if (!stack.isEmpty() || parts.isEmpty())
+        return null;
+
+      TreeSpliterator prefix = new TreeSpliterator(null, estimate >>> 1);
+      if (parts.size() >= 2) {
+        for (int i = parts.size() / 2; i > 0; i--)
+          prefix.parts.add(parts.poll());
+      }
+      else {
+        TreeNode<E> node = parts.poll();
+        if (node.left == null && node.right == null) {
+          parts.add(node);
+          return null; // A single element cannot be split
+        }
+
+        // The left subtree goes first; the root, as a subtree of one
+        // node, and the right subtree stay here
+        if (node.left != null) {
+          prefix.parts.add(node.left);
+          parts.add(new TreeNode<E>(node.element));
+        }
+        else
+          prefix.parts.add(new TreeNode<E>(node.element));
+        if (node.right != null)
+          parts.add(node.right);
+      }
+
+      estimate -= prefix.estimate;
+      return prefix;
+    }
+
+    @Override /** Visit the next element if there is one */
+    public boolean tryAdvance(java.util.function.Consumer<? super E> action) {
+      if (stack.isEmpty()) {
+        if (parts.isEmpty())
+          return false;
+        pushLeft(parts.poll());
+      }
+
+      TreeNode<E> node = stack.pop();
+      pushLeft(node.right);
+      if (estimate > 0)
+        estimate--;
+      action.accept(node.element);
+      return true;
+    }
+
+    /** Push a node and all its left descendants onto the stack */
+    private void pushLeft(TreeNode<E> node) {
+      while (node != null) {
+        stack.push(node);
+        node = node.left;
+      }
+    }
+
+    @Override /** Visit all remaining elements */
+    public void forEachRemaining(java.util.function.Consumer<? super E> action) {
+      TreeVisitor<E> visitor = e -> {
+        action.accept(e);
+        return true;
+      };
+      while (!stack.isEmpty()) {
+        TreeNode<E> node = stack.pop();
+        action.accept(node.element);
+        inorder(node.right, visitor);
+      }
+      while (!parts.isEmpty())
+        inorder(parts.poll(), visitor);
+      estimate = 0;
+    }
+
+    @Override
+    public long estimateSize() {
+      return estimate;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | DISTINCT | SORTED | NONNULL;
+    }
+
+    @Override /** Elements are in natural order */
+    public java.util.Comparator<? super E> getComparator() {
+      return null;
     }
   }
 
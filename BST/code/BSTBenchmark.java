@@ -0,0 +1,257 @@
+import java.util.*;
+
+/** Benchmark harness for the search trees in this module against
+ * java.util.TreeMap. For every tree, workload and size it measures
+ * insert (building the tree), search, full iteration and delete, and
+ * reports the median time and the bytes allocated per operation.
+ *
+ * Workloads:
+ *   random   keys inserted and searched in uniformly random order
+ *   sorted   keys inserted in increasing order, searched randomly
+ *   zipfian  keys inserted randomly, searched with a Zipf(0.99)
+ *            distribution, so a few keys make up most searches
+ *
+ * Allocation is read from the JVM's per-thread allocation counter
+ * (com.sun.management.ThreadMXBean) and shown as -1 where the JVM does
+ * not provide it.
+ *
+ * Usage: java BSTBenchmark [size ...]
+ * Sizes default to 1000 10000 100000 1000000; 10000000 can be passed
+ * on the command line (give the JVM a few GB with -Xmx). The plain BST
+ * degenerates to a list on sorted keys, so it is skipped there above
+ * MAX_DEGENERATE_SIZE elements. */
+public class BSTBenchmark {
+  private static final long SEED = 42L;
+  private static final int WARMUP_ROUNDS = 2;
+  private static final int MEASURED_ROUNDS = 3;
+  private static final int MAX_SEARCHES = 1000000;
+  private static final int MAX_DEGENERATE_SIZE = 10000;
+  private static final double ZIPF_EXPONENT = 0.99;
+
+  // Results are accumulated here so the JIT cannot drop the measured calls
+  private static long sink;
+
+  public static void main(String[] args) {
+    int[] sizes = {1000, 10000, 100000, 1000000};
+    if (args.length > 0) {
+      sizes = new int[args.length];
+      for (int i = 0; i < args.length; i++)
+        sizes[i] = Integer.parseInt(args[i]);
+    }
+
+    System.out.println("=== Search Tree Benchmark ===");
+    System.out.println("median of " + MEASURED_ROUNDS + " rounds after "
+      + WARMUP_ROUNDS + " warm-up rounds\n");
+
+    for (int size: sizes) {
+      for (String workload: new String[] {"random", "sorted", "zipfian"}) {
+        System.out.printf("=== %s, %,d elements ===%n", workload, size);
+        Integer[] keys = insertOrder(workload, size);
+        Integer[] searches = searchKeys(workload, size);
+        for (String tree: new String[] {"TreeMap", "BST", "AVLTree",
+            "RBTree", "SplayTree", "BPlusTree", "MonitoredBST"}) {
+          if (tree.equals("BST") && workload.equals("sorted")
+              && size > MAX_DEGENERATE_SIZE)
+            System.out.printf("%-13s skipped (degenerates to a list)%n", tree);
+          else
+            benchmark(tree, keys, searches);
+        }
+        System.out.println();
+      }
+    }
+
+    System.out.println("(sink: " + sink + ")");
+  }
+
+  /** Create an empty tree under test by name */
+  private static Subject create(String tree) {
+    switch (tree) {
+      case "TreeMap": return new TreeMapSubject();
+      case "BST": return new TreeSubject(new BST<Integer>());
+      case "AVLTree": return new TreeSubject(new AVLTree<Integer>());
+      case "RBTree": return new TreeSubject(new RBTree<Integer>());
+      case "SplayTree": return new TreeSubject(new SplayTree<Integer>());
+      case "BPlusTree": return new TreeSubject(new BPlusTree<Integer>());
+      case "MonitoredBST": return new TreeSubject(new MonitoredBST<Integer>());
+      default: throw new IllegalArgumentException("Unknown tree " + tree);
+    }
+  }
+
+  /** Run every operation on one tree for several rounds and print
+   * the median time and allocation per operation */
+  private static void benchmark(String tree, Integer[] keys, Integer[] searches) {
+    String[] operations = {"insert", "search", "iterate", "delete"};
+    double[][] nanos = new double[operations.length][MEASURED_ROUNDS];
+    double[][] bytes = new double[operations.length][MEASURED_ROUNDS];
+    int deletes = keys.length / 2;
+
+    for (int round = -WARMUP_ROUNDS; round < MEASURED_ROUNDS; round++) {
+      Subject subject = create(tree);
+      Measurement m = new Measurement();
+
+      m.start();
+      for (Integer key: keys)
+        subject.insert(key);
+      m.stop(keys.length);
+      record(nanos, bytes, 0, round, m);
+
+      m.start();
+      for (Integer key: searches)
+        if (subject.search(key))
+          sink++;
+      m.stop(searches.length);
+      record(nanos, bytes, 1, round, m);
+
+      m.start();
+      sink += subject.iterate();
+      m.stop(keys.length);
+      record(nanos, bytes, 2, round, m);
+
+      m.start();
+      for (int i = 0; i < deletes; i++)
+        subject.delete(keys[i]);
+      m.stop(deletes);
+      record(nanos, bytes, 3, round, m);
+    }
+
+    StringBuilder line = new StringBuilder(String.format("%-13s", tree));
+    for (int i = 0; i < operations.length; i++)
+      line.append(String.format(" | %s %,8.1f ns %,7.1f B", operations[i],
+        median(nanos[i]), median(bytes[i])));
+    System.out.println(line);
+  }
+
+  /** Store a measurement unless the round is a warm-up round */
+  private static void record(double[][] nanos, double[][] bytes,
+      int operation, int round, Measurement m) {
+    if (round >= 0) {
+      nanos[operation][round] = m.nanosPerOperation;
+      bytes[operation][round] = m.bytesPerOperation;
+    }
+  }
+
+  private static double median(double[] samples) {
+    double[] sorted = samples.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+
+  /** Return the keys 0..n-1 in the order they are inserted */
+  private static Integer[] insertOrder(String workload, int n) {
+    Integer[] keys = new Integer[n];
+    for (int i = 0; i < n; i++)
+      keys[i] = i;
+    if (!workload.equals("sorted"))
+      Collections.shuffle(Arrays.asList(keys), new Random(SEED));
+    return keys;
+  }
+
+  /** Return the keys to search for. Zipfian searches pick rank r with
+   * probability proportional to 1 / r^s, using the inverse of the
+   * continuous approximation of the Zipf distribution */
+  private static Integer[] searchKeys(String workload, int n) {
+    Random random = new Random(SEED + 1);
+    Integer[] searches = new Integer[Math.min(n, MAX_SEARCHES)];
+
+    // Hot ranks map to scattered keys, not to the smallest ones
+    int[] keyOfRank = new int[n];
+    for (int i = 0; i < n; i++)
+      keyOfRank[i] = i;
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int temp = keyOfRank[i];
+      keyOfRank[i] = keyOfRank[j];
+      keyOfRank[j] = temp;
+    }
+
+    double oneMinusS = 1 - ZIPF_EXPONENT;
+    double span = Math.pow(n, oneMinusS) - 1;
+    for (int i = 0; i < searches.length; i++) {
+      int rank;
+      if (workload.equals("zipfian")) {
+        double x = Math.pow(span * random.nextDouble() + 1, 1 / oneMinusS);
+        rank = Math.min(n, Math.max(1, (int)x)) - 1;
+      }
+      else
+        rank = random.nextInt(n);
+      searches[i] = keyOfRank[rank];
+    }
+    return searches;
+  }
+
+  /** Times a block of operations and counts the bytes it allocates */
+  private static class Measurement {
+    private static final java.lang.management.ThreadMXBean THREADS =
+      java.lang.management.ManagementFactory.getThreadMXBean();
+
+    private long startNanos;
+    private long startBytes;
+    double nanosPerOperation;
+    double bytesPerOperation;
+
+    void start() {
+      startBytes = allocatedBytes();
+      startNanos = System.nanoTime();
+    }
+
+    void stop(int operations) {
+      long elapsed = System.nanoTime() - startNanos;
+      long allocated = allocatedBytes();
+      nanosPerOperation = (double)elapsed / operations;
+      bytesPerOperation = allocated < 0 ? -1
+        : (double)(allocated - startBytes) / operations;
+    }
+
+    /** Bytes allocated so far by this thread, or -1 if unknown */
+    private static long allocatedBytes() {
+      if (THREADS instanceof com.sun.management.ThreadMXBean)
+        return ((com.sun.management.ThreadMXBean)THREADS)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+      return -1;
+    }
+  }
+
+  /** The operations measured, for trees and for TreeMap */
+  private static abstract class Subject {
+    abstract void insert(Integer key);
+    abstract boolean search(Integer key);
+    abstract void delete(Integer key);
+
+    /** Visit every element in order and return their sum */
+    abstract long iterate();
+  }
+
+  private static class TreeSubject extends Subject {
+    private final Tree<Integer> tree;
+
+    TreeSubject(Tree<Integer> tree) {
+      this.tree = tree;
+    }
+
+    void insert(Integer key) { tree.insert(key); }
+    boolean search(Integer key) { return tree.search(key); }
+    void delete(Integer key) { tree.delete(key); }
+
+    long iterate() {
+      long sum = 0;
+      for (Integer e: tree)
+        sum += e;
+      return sum;
+    }
+  }
+
+  private static class TreeMapSubject extends Subject {
+    private final TreeMap<Integer, Boolean> map = new TreeMap<Integer, Boolean>();
+
+    void insert(Integer key) { map.put(key, Boolean.TRUE); }
+    boolean search(Integer key) { return map.containsKey(key); }
+    void delete(Integer key) { map.remove(key); }
+
+    long iterate() {
+      long sum = 0;
+      for (Integer e: map.keySet())
+        sum += e;
+      return sum;
+    }
+  }
+}
@@ -0,0 +1,234 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** Writes a BST to a compact binary snapshot and reads it back.
+ *
+ * A snapshot is a header (magic number, version, order, flags, node
+ * count) followed by the nodes' elements, each encoded by an
+ * ElementCodec:
+ *
+ *   PREORDER  each element is preceded by one byte telling whether the
+ *             node has a left and a right child, so the exact shape can
+ *             be rebuilt.
+ *   SORTED    elements only, in increasing order.
+ *
+ * For trees whose nodes hold a number per element (see
+ * BST.hasNodeData), such as the counts of a MultisetTree, the flags say
+ * so and every element is followed by its number as an int.
+ *
+ * Reading never compares elements: the shape comes from the child
+ * flags, and a balanced tree is built from the sorted elements with
+ * buildBalanced. Both take O(n). The stored shape carries no extra
+ * node fields, so an exact-shape reload only works for trees whose
+ * fields updateNode can recompute (BST, AVLTree, OrderStatisticTree,
+ * SplayTree). For others, such as RBTree, whose colours the shape does
+ * not determine, read refuses it and the tree must be reloaded
+ * balanced. After reading, the tree's afterLoad hook lets it restore
+ * the rest of its state. */
+public class BSTSnapshot<E extends Comparable<E>> {
+  public enum Order { PREORDER, SORTED }
+
+  private static final int MAGIC = 0x42535453; // "BSTS"
+  private static final int VERSION = 2; // Version 1 had no flags byte
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int HAS_LEFT = 1;
+  private static final int HAS_RIGHT = 2;
+  private static final int HAS_NODE_DATA = 1; // Header flag
+
+  private final ElementCodec<E> codec;
+
+  /** Create a snapshot reader and writer for the given element codec */
+  public BSTSnapshot(ElementCodec<E> codec) {
+    this.codec = codec;
+  }
+
+  /** Write a snapshot of the tree to a file */
+  public void write(BST<E> tree, Path file, Order order) throws IOException {
+    try (OutputStream out = Files.newOutputStream(file)) {
+      write(tree, out, order);
+    }
+  }
+
+  /** Write a snapshot of the tree to a stream. The stream is flushed
+   * but not closed */
+  public void write(BST<E> tree, OutputStream stream, Order order)
+      throws IOException {
+    DataOutputStream out = new DataOutputStream(
+      new BufferedOutputStream(stream, BUFFER_SIZE));
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+    out.writeByte(order.ordinal());
+    boolean hasData = tree.hasNodeData();
+    out.writeByte(hasData ? HAS_NODE_DATA : 0);
+    out.writeInt(tree.size); // Nodes, not getSize(), which may count repeats
+
+    if (order == Order.SORTED) {
+      for (BST.TreeNode<E> node: inorder(tree.root, tree.size)) {
+        codec.write(out, node.element);
+        if (hasData)
+          out.writeInt(tree.getNodeData(node));
+      }
+    }
+    else {
+      // Iterative preorder, so degenerate trees cannot overflow the stack
+      java.util.ArrayDeque<BST.TreeNode<E>> stack =
+        new java.util.ArrayDeque<BST.TreeNode<E>>();
+      if (tree.root != null)
+        stack.push(tree.root);
+      while (!stack.isEmpty()) {
+        BST.TreeNode<E> node = stack.pop();
+        out.writeByte((node.left != null ? HAS_LEFT : 0)
+          | (node.right != null ? HAS_RIGHT : 0));
+        codec.write(out, node.element);
+        if (hasData)
+          out.writeInt(tree.getNodeData(node));
+        if (node.right != null)
+          stack.push(node.right);
+        if (node.left != null)
+          stack.push(node.left);
+      }
+    }
+    out.flush();
+  }
+
+  /** Replace the elements of the tree by those in a snapshot file */
+  public void read(BST<E> tree, Path file, boolean balanced)
+      throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      read(tree, in, balanced);
+    }
+  }
+
+  /** Replace the elements of the tree by those read from a stream.
+   * A PREORDER snapshot is rebuilt with its exact shape unless
+   * balanced is true; a SORTED snapshot is always rebuilt balanced.
+   * Throws IllegalArgumentException for an exact-shape reload into a
+   * tree that cannot rebuild its node fields from the shape */
+  public void read(BST<E> tree, InputStream stream, boolean balanced)
+      throws IOException {
+    DataInputStream in = new DataInputStream(
+      new BufferedInputStream(stream, BUFFER_SIZE));
+    if (in.readInt() != MAGIC)
+      throw new IOException("Not a BST snapshot");
+    int version = in.readUnsignedByte();
+    if (version < 1 || version > VERSION)
+      throw new IOException("Unsupported snapshot version " + version);
+    int order = in.readUnsignedByte();
+    if (order >= Order.values().length)
+      throw new IOException("Unknown snapshot order " + order);
+    int flags = version >= 2 ? in.readUnsignedByte() : 0;
+    boolean hasData = (flags & HAS_NODE_DATA) != 0;
+    int size = in.readInt();
+    if (Order.values()[order] == Order.PREORDER && !balanced
+        && !tree.canRebuildShape())
+      throw new IllegalArgumentException(tree.getClass().getSimpleName()
+        + " cannot be rebuilt in the stored shape; read it balanced");
+
+    if (Order.values()[order] == Order.SORTED) {
+      @SuppressWarnings("unchecked")
+      E[] sorted = (E[])new Comparable<?>[size];
+      int[] data = hasData ? new int[size] : null;
+      for (int i = 0; i < size; i++) {
+        sorted[i] = codec.read(in);
+        if (hasData)
+          data[i] = in.readInt();
+      }
+      tree.root = tree.buildBalanced(sorted, 0, size - 1);
+      if (hasData)
+        setNodeData(tree, data);
+    }
+    else if (balanced) {
+      BST.TreeNode<E>[] nodes = readPreorder(in, size, tree, hasData);
+      BST.TreeNode<E>[] ordered = inorder(size == 0 ? null : nodes[0], size);
+      @SuppressWarnings("unchecked")
+      E[] sorted = (E[])new Comparable<?>[size];
+      int[] data = hasData ? new int[size] : null;
+      for (int i = 0; i < size; i++) {
+        sorted[i] = ordered[i].element;
+        if (hasData)
+          data[i] = tree.getNodeData(ordered[i]);
+      }
+      tree.root = tree.buildBalanced(sorted, 0, size - 1);
+      if (hasData)
+        setNodeData(tree, data);
+    }
+    else {
+      BST.TreeNode<E>[] nodes = readPreorder(in, size, tree, hasData);
+      // Descendants come after a node in preorder, so updating nodes in
+      // reverse preorder sets each node after its subtrees
+      for (int i = size - 1; i >= 0; i--)
+        tree.updateNode(nodes[i]);
+      tree.root = size == 0 ? null : nodes[0];
+    }
+    tree.size = size;
+    tree.afterLoad();
+  }
+
+  /** Read size nodes in preorder and link them using their child flags.
+   * Nodes are made by tree.createNewNode and get their node data if the
+   * snapshot has any. Return the nodes in preorder */
+  private BST.TreeNode<E>[] readPreorder(DataInput in, int size, BST<E> tree,
+      boolean hasData) throws IOException {
+    @SuppressWarnings("unchecked")
+    BST.TreeNode<E>[] nodes = (BST.TreeNode<E>[])new BST.TreeNode<?>[size];
+    // Nodes whose right child is still to be read
+    java.util.ArrayDeque<BST.TreeNode<E>> waitingForRight =
+      new java.util.ArrayDeque<BST.TreeNode<E>>();
+    BST.TreeNode<E> waitingForLeft = null;
+
+    for (int i = 0; i < size; i++) {
+      int flags = in.readUnsignedByte();
+      BST.TreeNode<E> node = tree.createNewNode(codec.read(in));
+      if (hasData)
+        tree.setNodeData(node, in.readInt());
+      nodes[i] = node;
+
+      // In preorder a node follows its parent if it is a left child,
+      // and otherwise is the right child of the latest node with one
+      if (i > 0) {
+        if (waitingForLeft != null)
+          waitingForLeft.left = node;
+        else if (!waitingForRight.isEmpty())
+          waitingForRight.pop().right = node;
+        else
+          throw new IOException("Corrupt snapshot: node without a parent");
+      }
+
+      if ((flags & HAS_RIGHT) != 0)
+        waitingForRight.push(node);
+      waitingForLeft = (flags & HAS_LEFT) != 0 ? node : null;
+    }
+
+    if (waitingForLeft != null || !waitingForRight.isEmpty())
+      throw new IOException("Corrupt snapshot: missing nodes");
+    return nodes;
+  }
+
+  /** Set the node data of the tree's nodes, given in inorder */
+  private void setNodeData(BST<E> tree, int[] data) {
+    BST.TreeNode<E>[] nodes = inorder(tree.root, data.length);
+    for (int i = 0; i < nodes.length; i++)
+      tree.setNodeData(nodes[i], data[i]);
+  }
+
+  /** Return the size nodes of the tree rooted at root in inorder */
+  private BST.TreeNode<E>[] inorder(BST.TreeNode<E> root, int size) {
+    @SuppressWarnings("unchecked")
+    BST.TreeNode<E>[] nodes = (BST.TreeNode<E>[])new BST.TreeNode<?>[size];
+    java.util.ArrayDeque<BST.TreeNode<E>> stack =
+      new java.util.ArrayDeque<BST.TreeNode<E>>();
+    BST.TreeNode<E> current = root;
+    int i = 0;
+    while (current != null || !stack.isEmpty()) {
+      while (current != null) {
+        stack.push(current);
+        current = current.left;
+      }
+      current = stack.pop();
+      nodes[i++] = current;
+      current = current.right;
+    }
+    return nodes;
+  }
+}
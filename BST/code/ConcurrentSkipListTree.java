@@ -0,0 +1,285 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/** A lock-free skip list that can be shared by many threads without
+ * a lock. Every node is on level 0 and on each higher level with
+ * probability 1/2, so a search skips over most nodes in O(log n)
+ * expected steps. A node is deleted by first marking its next links,
+ * then unlinking it; searches never wait and simply step over marked
+ * nodes, while inserts and deletes retry their CAS if a neighbour
+ * changed and help unlink marked nodes they pass (Herlihy and Shavit,
+ * The Art of Multiprocessor Programming, chapter 14).
+ *
+ * Iterators, range scans and getSize are weakly consistent: they
+ * reflect some of the updates made while they run. A skip list has
+ * no tree shape, so preorder and postorder print nothing. */
+public class ConcurrentSkipListTree<E extends Comparable<E>> extends AbstractTree<E> {
+  private static final int MAX_LEVEL = 31;
+
+  private final Node<E> head = new Node<E>(null, MAX_LEVEL);
+  private final Node<E> tail = new Node<E>(null, MAX_LEVEL);
+  private final LongAdder size = new LongAdder();
+
+  /** Create an empty skip list */
+  public ConcurrentSkipListTree() {
+    for (int level = 0; level <= MAX_LEVEL; level++)
+      head.next[level] = new AtomicMarkableReference<Node<E>>(tail, false);
+  }
+
+  /** Create a skip list from an array of objects */
+  public ConcurrentSkipListTree(E[] objects) {
+    this();
+    for (int i = 0; i < objects.length; i++)
+      insert(objects[i]);
+  }
+
+  @Override /** Returns true if the element is in the tree. Never blocks */
+  public boolean search(E e) {
+    Node<E> node = nextLive(lastBefore(e, false));
+    return node != tail && node.element.compareTo(e) == 0;
+  }
+
+  @Override /** Insert an element into the tree.
+   * Return true if the element is inserted successfully */
+  public boolean insert(E e) {
+    int topLevel = randomLevel();
+    @SuppressWarnings("unchecked")
+    Node<E>[] preds = (Node<E>[])new Node<?>[MAX_LEVEL + 1];
+    @SuppressWarnings("unchecked")
+    Node<E>[] succs = (Node<E>[])new Node<?>[MAX_LEVEL + 1];
+
+    while (true) {
+      if (find(e, preds, succs))
+        return false; // Duplicate element not inserted
+
+      Node<E> newNode = new Node<E>(e, topLevel);
+      for (int level = 0; level <= topLevel; level++)
+        newNode.next[level] = new AtomicMarkableReference<Node<E>>(succs[level], false);
+
+      // The element is in the set once it is linked on level 0
+      if (!preds[0].next[0].compareAndSet(succs[0], newNode, false, false))
+        continue; // A neighbour changed; search again
+      size.increment();
+
+      // Link the higher levels, searching again whenever a CAS fails
+      for (int level = 1; level <= topLevel; level++) {
+        while (true) {
+          boolean[] marked = {false};
+          Node<E> next = newNode.next[level].get(marked);
+          if (marked[0])
+            return true; // Already being deleted; stop linking
+          if (next != succs[level] &&
+              !newNode.next[level].compareAndSet(next, succs[level], false, false))
+            continue;
+          if (preds[level].next[level].compareAndSet(succs[level], newNode, false, false))
+            break;
+          find(e, preds, succs);
+        }
+      }
+      return true;
+    }
+  }
+
+  @Override /** Delete an element from the tree.
+   * Return true if the element is deleted successfully */
+  public boolean delete(E e) {
+    @SuppressWarnings("unchecked")
+    Node<E>[] preds = (Node<E>[])new Node<?>[MAX_LEVEL + 1];
+    @SuppressWarnings("unchecked")
+    Node<E>[] succs = (Node<E>[])new Node<?>[MAX_LEVEL + 1];
+
+    if (!find(e, preds, succs))
+      return false; // Element is not in the tree
+
+    // Mark the upper levels top-down so no thread links past the node
+    Node<E> victim = succs[0];
+    boolean[] marked = {false};
+    for (int level = victim.topLevel(); level >= 1; level--) {
+      Node<E> succ = victim.next[level].get(marked);
+      while (!marked[0]) {
+        victim.next[level].compareAndSet(succ, succ, false, true);
+        succ = victim.next[level].get(marked);
+      }
+    }
+
+    // Whoever marks level 0 deletes the element
+    Node<E> succ = victim.next[0].get(marked);
+    while (true) {
+      if (victim.next[0].compareAndSet(succ, succ, false, true)) {
+        size.decrement();
+        find(e, preds, succs); // Unlink the marked node
+        return true;
+      }
+      succ = victim.next[0].get(marked);
+      if (marked[0])
+        return false; // Another thread deleted it first
+    }
+  }
+
+  /** Fill preds and succs with the nodes around e on every level,
+   * unlinking any marked node on the way. Return true if e is found */
+  private boolean find(E e, Node<E>[] preds, Node<E>[] succs) {
+    boolean[] marked = {false};
+    retry:
+    while (true) {
+      Node<E> pred = head;
+      Node<E> current = null;
+      for (int level = MAX_LEVEL; level >= 0; level--) {
+        current = pred.next[level].getReference();
+        while (true) {
+          Node<E> succ = current.next(level, marked);
+          while (marked[0]) {
+            // current is being deleted: unlink it from this level
+            if (!pred.next[level].compareAndSet(current, succ, false, false))
+              continue retry;
+            current = succ;
+            succ = current.next(level, marked);
+          }
+          if (current != tail && current.element.compareTo(e) < 0) {
+            pred = current;
+            current = succ;
+          }
+          else
+            break;
+        }
+        preds[level] = pred;
+        succs[level] = current;
+      }
+      return current != tail && current.element.compareTo(e) == 0;
+    }
+  }
+
+  /** Return the last level-0 node before e (or before the elements
+   * greater than e if inclusive). Only reads; steps over marked nodes */
+  private Node<E> lastBefore(E e, boolean inclusive) {
+    boolean[] marked = {false};
+    Node<E> pred = head;
+    for (int level = MAX_LEVEL; level >= 0; level--) {
+      Node<E> current = pred.next[level].getReference();
+      while (true) {
+        Node<E> succ = current.next(level, marked);
+        while (marked[0]) {
+          current = succ;
+          succ = current.next(level, marked);
+        }
+        int cmp = current == tail ? 1 : current.element.compareTo(e);
+        if (cmp < 0 || inclusive && cmp == 0) {
+          pred = current;
+          current = succ;
+        }
+        else
+          break;
+      }
+    }
+    return pred;
+  }
+
+  /** Return the first unmarked node after node on level 0 */
+  private Node<E> nextLive(Node<E> node) {
+    Node<E> current = node.next[0].getReference();
+    while (current != tail && current.next[0].isMarked())
+      current = current.next[0].getReference();
+    return current;
+  }
+
+  /** Choose a top level with probability 1/2 for each extra level */
+  private static int randomLevel() {
+    int bits = ThreadLocalRandom.current().nextInt();
+    return Math.min(Integer.numberOfTrailingZeros(bits), MAX_LEVEL);
+  }
+
+  @Override /** Get the number of elements in the tree */
+  public int getSize() {
+    return (int)size.sum();
+  }
+
+  @Override /** Inorder traversal: print the elements in order */
+  public void inorder() {
+    for (E e: this)
+      System.out.print(e + " ");
+  }
+
+  @Override /** Return the greatest element less than or equal to e */
+  public E floor(E e) {
+    return lastBefore(e, true).element;
+  }
+
+  @Override /** Return the least element greater than or equal to e */
+  public E ceiling(E e) {
+    return nextLive(lastBefore(e, false)).element;
+  }
+
+  @Override /** Return the least element strictly greater than e */
+  public E higher(E e) {
+    return nextLive(lastBefore(e, true)).element;
+  }
+
+  @Override /** Return the greatest element strictly less than e */
+  public E lower(E e) {
+    return lastBefore(e, false).element;
+  }
+
+  @Override /** Obtain an iterator. Use inorder. */
+  public java.util.Iterator<E> iterator() {
+    return new LevelZeroIterator(nextLive(head), null);
+  }
+
+  @Override /** Obtain an inorder iterator over the elements e with
+   * lo <= e <= hi */
+  public java.util.Iterator<E> subTree(E lo, E hi) {
+    return new LevelZeroIterator(nextLive(lastBefore(lo, false)), hi);
+  }
+
+  // Inner class LevelZeroIterator, walks level 0 skipping marked nodes
+  private class LevelZeroIterator implements java.util.Iterator<E> {
+    private Node<E> current; // Node holding the next element
+    private E hi;            // Largest element to visit, null for no bound
+
+    public LevelZeroIterator(Node<E> first, E hi) {
+      current = first;
+      this.hi = hi;
+    }
+
+    @Override /** More elements for traversing? */
+    public boolean hasNext() {
+      return current != tail && (hi == null || current.element.compareTo(hi) <= 0);
+    }
+
+    @Override /** Get the current element and move to the next */
+    public E next() {
+      if (!hasNext())
+        throw new java.util.NoSuchElementException();
+      E e = current.element;
+      current = nextLive(current);
+      return e;
+    }
+  }
+
+  /** A node holds an element and one marked next link per level.
+   * The sentinels head and tail hold null */
+  private static class Node<E> {
+    protected final E element;
+    protected final AtomicMarkableReference<Node<E>>[] next;
+
+    @SuppressWarnings("unchecked")
+    Node(E element, int topLevel) {
+      this.element = element;
+      next = (AtomicMarkableReference<Node<E>>[])
+        new AtomicMarkableReference<?>[topLevel + 1];
+    }
+
+    int topLevel() {
+      return next.length - 1;
+    }
+
+    /** Return the next node on a level; the tail has no next nodes */
+    Node<E> next(int level, boolean[] marked) {
+      if (next[level] == null) {
+        marked[0] = false;
+        return null;
+      }
+      return next[level].get(marked);
+    }
+  }
+}
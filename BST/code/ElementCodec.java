@@ -0,0 +1,51 @@
+public interface ElementCodec<E> {
+  /** Write an element to a snapshot */
+  public void write(java.io.DataOutput out, E e) throws java.io.IOException;
+
+  /** Read an element written by write */
+  public E read(java.io.DataInput in) throws java.io.IOException;
+
+  /** Codec for Integer elements, 4 bytes each */
+  public static final ElementCodec<Integer> INTEGER = new ElementCodec<Integer>() {
+    public void write(java.io.DataOutput out, Integer e) throws java.io.IOException {
+      out.writeInt(e);
+    }
+
+    public Integer read(java.io.DataInput in) throws java.io.IOException {
+      return in.readInt();
+    }
+  };
+
+  /** Codec for Long elements, 8 bytes each */
+  public static final ElementCodec<Long> LONG = new ElementCodec<Long>() {
+    public void write(java.io.DataOutput out, Long e) throws java.io.IOException {
+      out.writeLong(e);
+    }
+
+    public Long read(java.io.DataInput in) throws java.io.IOException {
+      return in.readLong();
+    }
+  };
+
+  /** Codec for Double elements, 8 bytes each */
+  public static final ElementCodec<Double> DOUBLE = new ElementCodec<Double>() {
+    public void write(java.io.DataOutput out, Double e) throws java.io.IOException {
+      out.writeDouble(e);
+    }
+
+    public Double read(java.io.DataInput in) throws java.io.IOException {
+      return in.readDouble();
+    }
+  };
+
+  /** Codec for String elements in modified UTF-8 (up to 65535 bytes) */
+  public static final ElementCodec<String> STRING = new ElementCodec<String>() {
+    public void write(java.io.DataOutput out, String e) throws java.io.IOException {
+      out.writeUTF(e);
+    }
+
+    public String read(java.io.DataInput in) throws java.io.IOException {
+      return in.readUTF();
+    }
+  };
+}
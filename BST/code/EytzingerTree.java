@@ -0,0 +1,195 @@
+/** A read-only search tree stored in a flat array in Eytzinger (BFS)
+ * order: the root is at index 1 and the children of the node at index
+ * k are at 2k and 2k + 1. There are no node objects or child pointers,
+ * and the top levels of the tree, which every search visits, share a
+ * few cache lines. Searching walks down with
+ *   k = 2k + (keys[k] < e ? 1 : 0)
+ * which has no data-dependent branch, then recovers the answer from
+ * the bits of k. Use BST.freeze() to create one. */
+public class EytzingerTree<E extends Comparable<E>> extends AbstractTree<E> {
+  private final E[] keys; // keys[1..size] in BFS order; keys[0] is unused
+  private final int size;
+
+  /** Create a tree from elements sorted in increasing order
+   * without duplicates */
+  public EytzingerTree(E[] sorted) {
+    size = sorted.length;
+    @SuppressWarnings("unchecked")
+    E[] array = (E[])new Comparable<?>[size + 1];
+    keys = array;
+    fill(sorted, 0, 1);
+  }
+
+  /** Place sorted[next..] into the subtree at index k by an inorder
+   * walk of the implicit tree. Return the next unused sorted index */
+  private int fill(E[] sorted, int next, int k) {
+    if (k <= size) {
+      next = fill(sorted, next, 2 * k);
+      keys[k] = sorted[next++];
+      next = fill(sorted, next, 2 * k + 1);
+    }
+    return next;
+  }
+
+  /** Return the index of the least element >= e (or > e if strict),
+   * or 0 if there is none */
+  private int lowerBound(E e, boolean strict) {
+    int k = 1;
+    if (strict)
+      while (k <= size)
+        k = 2 * k + (keys[k].compareTo(e) <= 0 ? 1 : 0);
+    else
+      while (k <= size)
+        k = 2 * k + (keys[k].compareTo(e) < 0 ? 1 : 0);
+
+    // Every right turn appended a 1 bit. Undo the right turns made
+    // after the last left turn, and the left turn itself
+    return k >> (Integer.numberOfTrailingZeros(~k) + 1);
+  }
+
+  /** Return the index of the inorder predecessor of the node at index
+   * k, or 0 if there is none. k = 0 stands for "past the end" */
+  private int predecessor(int k) {
+    if (k == 0) {
+      k = size == 0 ? 0 : 1; // Last element: rightmost node
+      while (k != 0 && 2 * k + 1 <= size)
+        k = 2 * k + 1;
+      return k;
+    }
+    if (2 * k <= size) {
+      k = 2 * k; // Rightmost node of the left subtree
+      while (2 * k + 1 <= size)
+        k = 2 * k + 1;
+      return k;
+    }
+    while (k > 1 && k % 2 == 0)
+      k /= 2; // Climb while k is a left child
+    return k / 2;
+  }
+
+  /** Return the index of the inorder successor of the node at index k,
+   * or 0 if there is none */
+  private int successor(int k) {
+    if (2 * k + 1 <= size) {
+      k = 2 * k + 1; // Leftmost node of the right subtree
+      while (2 * k <= size)
+        k = 2 * k;
+      return k;
+    }
+    while (k % 2 == 1)
+      k /= 2; // Climb while k is a right child
+    return k / 2;
+  }
+
+  @Override /** Returns true if the element is in the tree */
+  public boolean search(E e) {
+    int k = lowerBound(e, false);
+    return k != 0 && keys[k].compareTo(e) == 0;
+  }
+
+  @Override /** Not supported: the tree is read-only */
+  public boolean insert(E e) {
+    throw new UnsupportedOperationException("EytzingerTree is read-only");
+  }
+
+  @Override /** Not supported: the tree is read-only */
+  public boolean delete(E e) {
+    throw new UnsupportedOperationException("EytzingerTree is read-only");
+  }
+
+  @Override /** Get the number of nodes in the tree */
+  public int getSize() {
+    return size;
+  }
+
+  @Override /** Inorder traversal from the root */
+  public void inorder() {
+    for (E e: this)
+      System.out.print(e + " ");
+  }
+
+  @Override /** Preorder traversal from the root */
+  public void preorder() {
+    preorder(1);
+  }
+
+  /** Preorder traversal from the subtree at index k */
+  private void preorder(int k) {
+    if (k > size) return;
+    System.out.print(keys[k] + " ");
+    preorder(2 * k);
+    preorder(2 * k + 1);
+  }
+
+  @Override /** Postorder traversal from the root */
+  public void postorder() {
+    postorder(1);
+  }
+
+  /** Postorder traversal from the subtree at index k */
+  private void postorder(int k) {
+    if (k > size) return;
+    postorder(2 * k);
+    postorder(2 * k + 1);
+    System.out.print(keys[k] + " ");
+  }
+
+  @Override /** Return the greatest element less than or equal to e */
+  public E floor(E e) {
+    return keys[predecessor(lowerBound(e, true))];
+  }
+
+  @Override /** Return the least element greater than or equal to e */
+  public E ceiling(E e) {
+    return keys[lowerBound(e, false)];
+  }
+
+  @Override /** Return the least element strictly greater than e */
+  public E higher(E e) {
+    return keys[lowerBound(e, true)];
+  }
+
+  @Override /** Return the greatest element strictly less than e */
+  public E lower(E e) {
+    return keys[predecessor(lowerBound(e, false))];
+  }
+
+  @Override /** Obtain an iterator. Use inorder. */
+  public java.util.Iterator<E> iterator() {
+    int first = size == 0 ? 0 : 1;
+    while (first != 0 && 2 * first <= size)
+      first = 2 * first; // Leftmost node
+    return new RangeIterator(first, null);
+  }
+
+  @Override /** Obtain an inorder iterator over the elements e with
+   * lo <= e <= hi */
+  public java.util.Iterator<E> subTree(E lo, E hi) {
+    return new RangeIterator(lowerBound(lo, false), hi);
+  }
+
+  // Inner class RangeIterator, walks successor indexes until hi
+  private class RangeIterator implements java.util.Iterator<E> {
+    private int current; // Index of the next element, 0 when done
+    private E hi;        // Largest element to visit, null for no bound
+
+    public RangeIterator(int first, E hi) {
+      this.current = first;
+      this.hi = hi;
+    }
+
+    @Override /** More elements for traversing? */
+    public boolean hasNext() {
+      return current != 0 && (hi == null || keys[current].compareTo(hi) <= 0);
+    }
+
+    @Override /** Get the current element and move to the next */
+    public E next() {
+      if (!hasNext())
+        throw new java.util.NoSuchElementException();
+      E e = keys[current];
+      current = successor(current);
+      return e;
+    }
+  }
+}
@@ -0,0 +1,306 @@
+/** A binary search tree specialized for int keys. Keys are stored in
+ * int fields, so there is no boxing and no compareTo call.
+ *
+ * Every walk down the tree does one comparison per level: it goes left
+ * if the key is less than the node's key and right otherwise,
+ * remembering the last node where it went right. That node is the only
+ * one that can hold the key, so equality is tested once at the bottom
+ * (Andersson's search). */
+public class IntBST {
+  protected IntTreeNode root;
+  protected int size = 0;
+
+  /** Create an empty tree */
+  public IntBST() {
+  }
+
+  /** Create a balanced tree from an array of keys */
+  public IntBST(int[] keys) {
+    int[] sorted = keys.clone();
+    java.util.Arrays.sort(sorted);
+
+    // Remove duplicates in place
+    int n = 0;
+    for (int i = 0; i < sorted.length; i++)
+      if (n == 0 || sorted[i] != sorted[n - 1])
+        sorted[n++] = sorted[i];
+
+    root = buildBalanced(sorted, 0, n - 1);
+    size = n;
+  }
+
+  /** Build a perfectly balanced subtree from sorted[lo..hi] */
+  private IntTreeNode buildBalanced(int[] sorted, int lo, int hi) {
+    if (lo > hi) return null;
+    int mid = (lo + hi) >>> 1;
+    IntTreeNode node = new IntTreeNode(sorted[mid]);
+    node.left = buildBalanced(sorted, lo, mid - 1);
+    node.right = buildBalanced(sorted, mid + 1, hi);
+    return node;
+  }
+
+  /** Returns true if the key is in the tree */
+  public boolean search(int key) {
+    IntTreeNode candidate = null; // Last node with node.key <= key
+    IntTreeNode current = root;
+    while (current != null) {
+      if (key < current.key)
+        current = current.left;
+      else {
+        candidate = current;
+        current = current.right;
+      }
+    }
+
+    return candidate != null && candidate.key == key;
+  }
+
+  /** Insert a key into the tree
+   * Return true if the key is inserted successfully */
+  public boolean insert(int key) {
+    IntTreeNode candidate = null; // Last node with node.key <= key
+    IntTreeNode parent = null;
+    boolean wentLeft = false;
+    IntTreeNode current = root;
+    while (current != null) {
+      parent = current;
+      wentLeft = key < current.key;
+      if (wentLeft)
+        current = current.left;
+      else {
+        candidate = current;
+        current = current.right;
+      }
+    }
+
+    if (candidate != null && candidate.key == key)
+      return false; // Duplicate key not inserted
+
+    // Attach the new node where the walk fell off the tree
+    IntTreeNode node = new IntTreeNode(key);
+    if (parent == null)
+      root = node;
+    else if (wentLeft)
+      parent.left = node;
+    else
+      parent.right = node;
+
+    size++;
+    return true; // Key inserted successfully
+  }
+
+  /** Delete a key from the tree
+   * Return true if the key is deleted successfully */
+  public boolean delete(int key) {
+    // Walk down as in search. Past the candidate the walk goes right
+    // once and then only left, so if the candidate holds the key, the
+    // last node visited is its successor
+    IntTreeNode candidate = null;
+    IntTreeNode parentOfCandidate = null;
+    IntTreeNode last = null;
+    IntTreeNode parentOfLast = null;
+    IntTreeNode current = root;
+    while (current != null) {
+      parentOfLast = last;
+      last = current;
+      if (key < current.key)
+        current = current.left;
+      else {
+        candidate = current;
+        parentOfCandidate = parentOfLast;
+        current = current.right;
+      }
+    }
+
+    if (candidate == null || candidate.key != key)
+      return false; // Key is not in the tree
+
+    if (candidate.right == null) {
+      // Connect the parent with the left child of the candidate
+      replaceChild(parentOfCandidate, candidate, candidate.left);
+    }
+    else {
+      // Move the successor's key up and unlink the successor,
+      // which has no left child
+      candidate.key = last.key;
+      if (parentOfLast == candidate)
+        candidate.right = last.right;
+      else
+        parentOfLast.left = last.right;
+    }
+
+    size--;
+    return true; // Key deleted successfully
+  }
+
+  /** Replace the child of parent (the root if parent is null) */
+  private void replaceChild(IntTreeNode parent, IntTreeNode child,
+      IntTreeNode replacement) {
+    if (parent == null)
+      root = replacement;
+    else if (parent.left == child)
+      parent.left = replacement;
+    else
+      parent.right = replacement;
+  }
+
+  /** Returns true if there is a key <= key, see floor */
+  public boolean hasFloor(int key) {
+    return floorNode(key) != null;
+  }
+
+  /** Return the greatest key <= key. Check hasFloor first */
+  public int floor(int key) {
+    IntTreeNode node = floorNode(key);
+    if (node == null)
+      throw new java.util.NoSuchElementException();
+    return node.key;
+  }
+
+  /** Return the node with the greatest key <= key, or null */
+  private IntTreeNode floorNode(int key) {
+    IntTreeNode candidate = null;
+    IntTreeNode current = root;
+    while (current != null) {
+      if (key < current.key)
+        current = current.left;
+      else {
+        candidate = current;
+        current = current.right;
+      }
+    }
+    return candidate;
+  }
+
+  /** Returns true if there is a key >= key, see ceiling */
+  public boolean hasCeiling(int key) {
+    return ceilingNode(key) != null;
+  }
+
+  /** Return the least key >= key. Check hasCeiling first */
+  public int ceiling(int key) {
+    IntTreeNode node = ceilingNode(key);
+    if (node == null)
+      throw new java.util.NoSuchElementException();
+    return node.key;
+  }
+
+  /** Return the node with the least key >= key, or null */
+  private IntTreeNode ceilingNode(int key) {
+    IntTreeNode candidate = null;
+    IntTreeNode current = root;
+    while (current != null) {
+      if (current.key < key)
+        current = current.right;
+      else {
+        candidate = current;
+        current = current.left;
+      }
+    }
+    return candidate;
+  }
+
+  /** Inorder traversal from the root */
+  public void inorder() {
+    inorder(root);
+  }
+
+  /** Inorder traversal from a subtree */
+  protected void inorder(IntTreeNode root) {
+    if (root == null) return;
+    inorder(root.left);
+    System.out.print(root.key + " ");
+    inorder(root.right);
+  }
+
+  /** Postorder traversal from the root */
+  public void postorder() {
+    postorder(root);
+  }
+
+  /** Postorder traversal from a subtree */
+  protected void postorder(IntTreeNode root) {
+    if (root == null) return;
+    postorder(root.left);
+    postorder(root.right);
+    System.out.print(root.key + " ");
+  }
+
+  /** Preorder traversal from the root */
+  public void preorder() {
+    preorder(root);
+  }
+
+  /** Preorder traversal from a subtree */
+  protected void preorder(IntTreeNode root) {
+    if (root == null) return;
+    System.out.print(root.key + " ");
+    preorder(root.left);
+    preorder(root.right);
+  }
+
+  /** Get the number of keys in the tree */
+  public int getSize() {
+    return size;
+  }
+
+  /** Return true if the tree is empty */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Remove all keys from the tree */
+  public void clear() {
+    root = null;
+    size = 0;
+  }
+
+  /** Obtain an iterator over the keys in increasing order.
+   * nextInt() returns unboxed keys */
+  public java.util.PrimitiveIterator.OfInt iterator() {
+    return new InorderIterator();
+  }
+
+  // Inner class InorderIterator, a lazy stack-based inorder walk
+  private class InorderIterator implements java.util.PrimitiveIterator.OfInt {
+    private java.util.ArrayDeque<IntTreeNode> stack =
+      new java.util.ArrayDeque<IntTreeNode>();
+
+    public InorderIterator() {
+      pushLeft(root);
+    }
+
+    /** Push a node and all its left descendants onto the stack */
+    private void pushLeft(IntTreeNode node) {
+      while (node != null) {
+        stack.push(node);
+        node = node.left;
+      }
+    }
+
+    @Override /** More keys for traversing? */
+    public boolean hasNext() {
+      return !stack.isEmpty();
+    }
+
+    @Override /** Get the current key and move to the next */
+    public int nextInt() {
+      if (stack.isEmpty())
+        throw new java.util.NoSuchElementException();
+      IntTreeNode node = stack.pop();
+      pushLeft(node.right);
+      return node.key;
+    }
+  }
+
+  /** A tree node with an int key */
+  protected static class IntTreeNode {
+    protected int key;
+    protected IntTreeNode left;
+    protected IntTreeNode right;
+
+    public IntTreeNode(int key) {
+      this.key = key;
+    }
+  }
+}
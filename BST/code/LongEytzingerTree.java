@@ -0,0 +1,66 @@
+/** An EytzingerTree specialized for long keys. Keys are stored in a
+ * long[] in BFS order, so there is no boxing and a search compares
+ * primitive values only */
+public class LongEytzingerTree {
+  private final long[] keys; // keys[1..size] in BFS order
+  private final int size;
+
+  /** Create a tree from keys sorted in increasing order without
+   * duplicates */
+  public LongEytzingerTree(long[] sorted) {
+    size = sorted.length;
+    keys = new long[size + 1];
+    fill(sorted, 0, 1);
+  }
+
+  /** Freeze a BST of Long keys */
+  public static LongEytzingerTree freeze(BST<Long> tree) {
+    long[] sorted = new long[tree.getSize()];
+    int i = 0;
+    for (long key: tree)
+      sorted[i++] = key;
+    return new LongEytzingerTree(sorted);
+  }
+
+  /** Place sorted[next..] into the subtree at index k */
+  private int fill(long[] sorted, int next, int k) {
+    if (k <= size) {
+      next = fill(sorted, next, 2 * k);
+      keys[k] = sorted[next++];
+      next = fill(sorted, next, 2 * k + 1);
+    }
+    return next;
+  }
+
+  /** Return the index of the least key >= key, or 0 if there is none */
+  private int lowerBound(long key) {
+    int k = 1;
+    while (k <= size)
+      k = 2 * k + (keys[k] < key ? 1 : 0);
+    return k >> (Integer.numberOfTrailingZeros(~k) + 1);
+  }
+
+  /** Returns true if the key is in the tree */
+  public boolean search(long key) {
+    int k = lowerBound(key);
+    return k != 0 && keys[k] == key;
+  }
+
+  /** Returns true if the least key >= key exists, see ceiling */
+  public boolean hasCeiling(long key) {
+    return lowerBound(key) != 0;
+  }
+
+  /** Return the least key >= key. Check hasCeiling first */
+  public long ceiling(long key) {
+    int k = lowerBound(key);
+    if (k == 0)
+      throw new java.util.NoSuchElementException();
+    return keys[k];
+  }
+
+  /** Get the number of keys in the tree */
+  public int getSize() {
+    return size;
+  }
+}
@@ -0,0 +1,272 @@
+/** A BST that counts its comparisons and keeps itself from degenerating.
+ *
+ * search, insert and delete count their comparisons with a single
+ * compareTo per level. When an insert lands deeper than c * log2(n),
+ * the tree rebuilds the smallest subtree on the new node's path that is
+ * clearly lopsided (a child holding more than 2^(-1/c) of its nodes,
+ * the scapegoat of Galperin and Rivest). When deletes shrink the tree
+ * below 2^(-1/c) of its largest size since the last full rebuild, the
+ * whole tree is rebuilt. Rebuilds use buildBalanced, so they take time
+ * linear in the subtree, and all operations stay O(log n) amortized
+ * with no balance fields in the nodes. */
+public class MonitoredBST<E extends Comparable<E>> extends BST<E> {
+  public static final double DEFAULT_DEPTH_FACTOR = 2.0;
+
+  private final double depthFactor; // c in the depth limit c * log2(n)
+  private final double alpha;       // 2^(-1/c): most a child may hold
+  private int maxSize = 0;          // Largest size since the last full rebuild
+
+  private long operations = 0;
+  private long comparisons = 0;
+  private long rebuilds = 0;
+  private long rebuiltNodes = 0;
+  private long inserts = 0;         // Successful inserts counted
+  private long insertDepthSum = 0;  // Sum of the depths new nodes landed at
+  private int maxInsertDepth = 0;   // Deepest a new node has landed
+
+  /** Create an empty tree with the default depth factor */
+  public MonitoredBST() {
+    this(DEFAULT_DEPTH_FACTOR);
+  }
+
+  /** Create an empty tree that rebuilds when an insert is deeper than
+   * depthFactor * log2(n). depthFactor must be greater than 1 */
+  public MonitoredBST(double depthFactor) {
+    if (!(depthFactor > 1))
+      throw new IllegalArgumentException("Depth factor must be greater than 1");
+    this.depthFactor = depthFactor;
+    this.alpha = Math.pow(2, -1 / depthFactor);
+  }
+
+  /** Create a balanced tree from an array of objects, see load */
+  public static <E extends Comparable<E>> MonitoredBST<E> of(E[] objects) {
+    MonitoredBST<E> tree = new MonitoredBST<E>();
+    tree.load(objects);
+    return tree;
+  }
+
+  @Override /** Returns true if the element is in the tree */
+  public boolean search(E e) {
+    operations++;
+    TreeNode<E> current = root;
+    while (current != null) {
+      comparisons++;
+      int cmp = e.compareTo(current.element);
+      if (cmp < 0)
+        current = current.left;
+      else if (cmp > 0)
+        current = current.right;
+      else
+        return true; // Element is found
+    }
+
+    return false;
+  }
+
+  @Override /** Insert an element, rebuilding a subtree if it lands too
+   * deep. Return true if the element is inserted successfully */
+  public boolean insert(E e) {
+    operations++;
+    java.util.ArrayList<TreeNode<E>> path = new java.util.ArrayList<TreeNode<E>>();
+    TreeNode<E> current = root;
+    int cmp = 0;
+    while (current != null) {
+      comparisons++;
+      cmp = e.compareTo(current.element);
+      if (cmp == 0)
+        return false; // Duplicate node not inserted
+      path.add(current);
+      current = cmp < 0 ? current.left : current.right;
+    }
+
+    TreeNode<E> node = createNewNode(e);
+    if (path.isEmpty())
+      root = node;
+    else if (cmp < 0)
+      path.get(path.size() - 1).left = node;
+    else
+      path.get(path.size() - 1).right = node;
+
+    size++;
+    maxSize = Math.max(maxSize, size);
+    inserts++;
+    insertDepthSum += path.size();
+    maxInsertDepth = Math.max(maxInsertDepth, path.size());
+    if (path.size() > depthLimit(size))
+      rebuildScapegoat(path, node);
+    return true; // Element inserted successfully
+  }
+
+  @Override /** Delete an element, rebuilding the whole tree if it has
+   * shrunk a lot. Return true if the element is deleted successfully */
+  public boolean delete(E e) {
+    operations++;
+    TreeNode<E> parent = null;
+    TreeNode<E> current = root;
+    while (current != null) {
+      comparisons++;
+      int cmp = e.compareTo(current.element);
+      if (cmp == 0)
+        break; // Element is in the tree pointed at by current
+      parent = current;
+      current = cmp < 0 ? current.left : current.right;
+    }
+
+    if (current == null)
+      return false; // Element is not in the tree
+
+    if (current.left == null) {
+      // Connect the parent with the right child of the current node
+      if (parent == null)
+        root = current.right;
+      else if (parent.left == current)
+        parent.left = current.right;
+      else
+        parent.right = current.right;
+    }
+    else {
+      // Replace the element by the rightmost element of the left subtree
+      TreeNode<E> parentOfRightMost = current;
+      TreeNode<E> rightMost = current.left;
+      while (rightMost.right != null) {
+        parentOfRightMost = rightMost;
+        rightMost = rightMost.right;
+      }
+
+      moveElement(rightMost, current);
+      if (parentOfRightMost.right == rightMost)
+        parentOfRightMost.right = rightMost.left;
+      else
+        parentOfRightMost.left = rightMost.left;
+    }
+
+    size--;
+    if (size < alpha * maxSize)
+      rebuild();
+    return true; // Element deleted successfully
+  }
+
+  /** Return the greatest depth allowed for a tree of n elements */
+  private double depthLimit(int n) {
+    return depthFactor * Math.log(n) / Math.log(2);
+  }
+
+  /** Walk up from a new node to the first ancestor where one child holds
+   * more than alpha of the nodes, and rebuild the subtree there */
+  private void rebuildScapegoat(java.util.ArrayList<TreeNode<E>> path,
+      TreeNode<E> node) {
+    int childSize = 1; // Size of the subtree of node
+    for (int i = path.size() - 1; i >= 0; i--) {
+      TreeNode<E> parent = path.get(i);
+      TreeNode<E> sibling = parent.left == node ? parent.right : parent.left;
+      int parentSize = childSize + 1 + count(sibling);
+      if (childSize > alpha * parentSize) {
+        TreeNode<E> rebuilt = rebuild(parent, parentSize);
+        if (i == 0)
+          root = rebuilt;
+        else if (path.get(i - 1).left == parent)
+          path.get(i - 1).left = rebuilt;
+        else
+          path.get(i - 1).right = rebuilt;
+        return;
+      }
+      node = parent;
+      childSize = parentSize;
+    }
+
+    rebuild(); // Not reached when the depth limit holds; rebuild all
+  }
+
+  /** Rebuild the whole tree perfectly balanced */
+  private void rebuild() {
+    root = rebuild(root, size);
+    maxSize = size;
+  }
+
+  /** Rebuild a subtree of n nodes perfectly balanced and return its root */
+  private TreeNode<E> rebuild(TreeNode<E> subtree, int n) {
+    @SuppressWarnings("unchecked")
+    E[] sorted = (E[])new Comparable<?>[n];
+    int[] i = {0};
+    inorder(subtree, e -> {
+      sorted[i[0]++] = e;
+      return true;
+    });
+
+    rebuilds++;
+    rebuiltNodes += n;
+    return buildBalanced(sorted, 0, n - 1);
+  }
+
+  /** Return the number of nodes in a subtree */
+  private int count(TreeNode<E> subtree) {
+    int[] n = {0};
+    inorder(subtree, e -> {
+      n[0]++;
+      return true;
+    });
+    return n[0];
+  }
+
+  @Override /** A tree loaded as a whole starts balanced */
+  protected void afterLoad() {
+    maxSize = size;
+  }
+
+  @Override /** Remove all elements from the tree */
+  public void clear() {
+    super.clear();
+    maxSize = 0;
+  }
+
+  /** Return the number of search, insert and delete calls counted */
+  public long getOperations() {
+    return operations;
+  }
+
+  /** Return the number of element comparisons counted */
+  public long getComparisons() {
+    return comparisons;
+  }
+
+  /** Return the average number of comparisons per operation */
+  public double getComparisonsPerOperation() {
+    return operations == 0 ? 0 : (double)comparisons / operations;
+  }
+
+  /** Return the number of subtree and full rebuilds done */
+  public long getRebuilds() {
+    return rebuilds;
+  }
+
+  /** Return the total number of nodes placed by rebuilds */
+  public long getRebuiltNodes() {
+    return rebuiltNodes;
+  }
+
+  /** Return the average depth at which inserted elements landed,
+   * before any rebuild they caused. Kept up to date in O(1) per insert,
+   * unlike getAverageDepth, which walks the tree */
+  public double getAverageInsertDepth() {
+    return inserts == 0 ? 0 : (double)insertDepthSum / inserts;
+  }
+
+  /** Return the greatest depth at which an inserted element landed,
+   * before any rebuild it caused */
+  public int getMaxInsertDepth() {
+    return maxInsertDepth;
+  }
+
+  /** Return true if the tree is within its depth limit. Measures the
+   * height with getHeight, so it is O(n) */
+  public boolean isHealthy() {
+    return size < 2 || getHeight() <= depthLimit(size);
+  }
+
+  /** Reset the operation, comparison, rebuild and insert depth counters */
+  public void resetCounters() {
+    operations = comparisons = rebuilds = rebuiltNodes = 0;
+    inserts = insertDepthSum = 0;
+    maxInsertDepth = 0;
+  }
+}
@@ -0,0 +1,322 @@
+/** An AVL tree that keeps duplicates. Each node holds one element and
+ * the number of times it occurs, so repeated elements cost one counter
+ * instead of one node each. insert and delete take a number of
+ * occurrences, count(e) is O(log n), and iterators and traversals
+ * repeat each element count times without copying.
+ *
+ * getSize() counts every occurrence; getDistinctSize() counts nodes.
+ * union, intersection and difference combine counts as multisets do:
+ * the larger count, the smaller count, and the count minus the other
+ * tree's count. A tree without counts counts each element once. */
+public class MultisetTree<E extends Comparable<E>> extends AVLTree<E> {
+  private int total = 0; // Number of elements counting repeats
+
+  /** Create an empty multiset */
+  public MultisetTree() {
+  }
+
+  /** Create a multiset holding every element of an array */
+  public static <E extends Comparable<E>> MultisetTree<E> of(E[] objects) {
+    MultisetTree<E> tree = new MultisetTree<E>();
+    tree.load(objects);
+    return tree;
+  }
+
+  @Override /** Override createNewNode to create a CountedNode */
+  protected CountedNode<E> createNewNode(E e) {
+    return new CountedNode<E>(e);
+  }
+
+  /** Return the node holding e, or null */
+  private CountedNode<E> find(E e) {
+    TreeNode<E> current = root;
+    while (current != null) {
+      int cmp = e.compareTo(current.element);
+      if (cmp < 0)
+        current = current.left;
+      else if (cmp > 0)
+        current = current.right;
+      else
+        return (CountedNode<E>)current;
+    }
+    return null;
+  }
+
+  /** Return the number of occurrences of e */
+  public int count(E e) {
+    CountedNode<E> node = find(e);
+    return node == null ? 0 : node.count;
+  }
+
+  @Override /** Insert one occurrence of an element. Always returns true */
+  public boolean insert(E e) {
+    return insert(e, 1);
+  }
+
+  /** Insert an element the given number of times. Always returns true */
+  public boolean insert(E e, int occurrences) {
+    if (occurrences <= 0)
+      throw new IllegalArgumentException("Occurrences must be positive");
+
+    CountedNode<E> node = find(e);
+    if (node != null)
+      node.count += occurrences;
+    else {
+      super.insert(e); // New node with a count of 1, then rebalance
+      find(e).count = occurrences;
+    }
+    total += occurrences;
+    return true;
+  }
+
+  @Override /** Delete one occurrence of an element.
+   * Return true if the element was in the multiset */
+  public boolean delete(E e) {
+    return delete(e, 1) > 0;
+  }
+
+  /** Delete up to the given number of occurrences of an element and
+   * return the number deleted. The node goes when its count reaches 0 */
+  public int delete(E e, int occurrences) {
+    if (occurrences <= 0)
+      throw new IllegalArgumentException("Occurrences must be positive");
+
+    CountedNode<E> node = find(e);
+    if (node == null)
+      return 0; // Element is not in the multiset
+
+    int deleted = Math.min(occurrences, node.count);
+    if (deleted < node.count)
+      node.count -= deleted;
+    else
+      super.delete(e); // Unlink the node and rebalance
+    total -= deleted;
+    return deleted;
+  }
+
+  @Override /** Move the count along with the element */
+  protected void moveElement(TreeNode<E> from, TreeNode<E> to) {
+    super.moveElement(from, to);
+    ((CountedNode<E>)to).count = ((CountedNode<E>)from).count;
+  }
+
+  @Override /** Snapshots store the count of every node */
+  protected boolean hasNodeData() {
+    return true;
+  }
+
+  @Override /** Return the count of a node */
+  protected int getNodeData(TreeNode<E> node) {
+    return ((CountedNode<E>)node).count;
+  }
+
+  @Override /** Restore the count of a node */
+  protected void setNodeData(TreeNode<E> node, int count) {
+    if (count <= 0)
+      throw new IllegalArgumentException("Occurrences must be positive");
+    ((CountedNode<E>)node).count = count;
+  }
+
+  @Override /** Recompute the total from the counts of the nodes */
+  protected void afterLoad() {
+    total = 0;
+    java.util.ArrayDeque<TreeNode<E>> stack =
+      new java.util.ArrayDeque<TreeNode<E>>();
+    if (root != null)
+      stack.push(root);
+    while (!stack.isEmpty()) {
+      TreeNode<E> node = stack.pop();
+      total += ((CountedNode<E>)node).count;
+      if (node.left != null) stack.push(node.left);
+      if (node.right != null) stack.push(node.right);
+    }
+  }
+
+  @Override /** Get the number of elements, counting every occurrence */
+  public int getSize() {
+    return total;
+  }
+
+  /** Get the number of distinct elements */
+  public int getDistinctSize() {
+    return size;
+  }
+
+  @Override /** Replace the contents by the elements of an array,
+   * counting repeated elements */
+  public void load(E[] objects) {
+    clear();
+    for (int i = 0; i < objects.length; i++)
+      insert(objects[i]);
+  }
+
+  @Override /** Add every occurrence of the elements of another tree */
+  public void merge(BST<E> other) {
+    for (E e: other)
+      insert(e);
+  }
+
+  @Override /** Add the counts the union added to the total */
+  protected void afterUnion(int added) {
+    total += added;
+  }
+
+  @Override /** The intersection kept this many occurrences */
+  protected void afterIntersection(int kept) {
+    total = kept;
+  }
+
+  @Override /** Subtract the counts the difference removed */
+  protected void afterDifference(int removed) {
+    total -= removed;
+  }
+
+  @Override /** Remove all elements from the multiset */
+  public void clear() {
+    super.clear();
+    total = 0;
+  }
+
+  @Override /** Return the distinct elements in increasing order */
+  protected E[] toSortedArray() {
+    @SuppressWarnings("unchecked")
+    E[] elements = (E[])new Comparable<?>[size];
+    int[] i = {0};
+    inorder(root, e -> {
+      elements[i[0]++] = e;
+      return true;
+    });
+    return elements;
+  }
+
+  @Override /** Inorder traversal: print every occurrence */
+  public void inorder() {
+    for (E e: this)
+      System.out.print(e + " ");
+  }
+
+  @Override /** Visit the element of a node once for each occurrence,
+   * so preorder and postorder repeat elements as inorder does */
+  protected boolean visitNode(TreeNode<E> node, TreeVisitor<? super E> visitor) {
+    for (int i = ((CountedNode<E>)node).count; i > 0; i--)
+      if (!visitor.visit(node.element))
+        return false;
+    return true;
+  }
+
+  @Override /** Inorder traversal visiting every occurrence */
+  public boolean inorder(TreeVisitor<? super E> visitor) {
+    for (E e: this)
+      if (!visitor.visit(e))
+        return false;
+    return true;
+  }
+
+  @Override /** Perform the action on every occurrence in order */
+  public void forEach(java.util.function.Consumer<? super E> action) {
+    for (E e: this)
+      action.accept(e);
+  }
+
+  @Override /** Obtain an iterator over every occurrence in order */
+  public java.util.Iterator<E> iterator() {
+    return new ExpandingIterator(null, null);
+  }
+
+  @Override /** Obtain an iterator over every occurrence of the
+   * elements e with lo <= e <= hi */
+  public java.util.Iterator<E> subTree(E lo, E hi) {
+    return new ExpandingIterator(lo, hi);
+  }
+
+  @Override /** Obtain a spliterator over every occurrence in order */
+  public java.util.Spliterator<E> spliterator() {
+    return java.util.Spliterators.spliterator(iterator(), total,
+      java.util.Spliterator.ORDERED | java.util.Spliterator.SORTED
+      | java.util.Spliterator.NONNULL);
+  }
+
+  // Inner class ExpandingIterator
+  // A lazy stack-based inorder walk over the nodes that returns each
+  // element count times
+  private class ExpandingIterator implements java.util.Iterator<E> {
+    private java.util.ArrayDeque<TreeNode<E>> stack =
+      new java.util.ArrayDeque<TreeNode<E>>();
+    private E lo;              // Smallest element to visit, null for no bound
+    private E hi;              // Largest element to visit, null for no bound
+    private E current;         // Element being repeated
+    private int remaining = 0; // Occurrences of current still to return
+    private boolean canRemove = false; // next() called since last remove()
+
+    public ExpandingIterator(E lo, E hi) {
+      this.lo = lo;
+      this.hi = hi;
+      seek(); // Start at the smallest element in range
+    }
+
+    /** Fill the stack with the path to the smallest element that is
+     * at least lo and, once an element was returned, after current */
+    private void seek() {
+      stack.clear();
+      TreeNode<E> node = root;
+      while (node != null) {
+        if ((current == null || current.compareTo(node.element) < 0)
+            && (lo == null || lo.compareTo(node.element) <= 0)) {
+          stack.push(node); // node is still to be visited
+          node = node.left;
+        }
+        else
+          node = node.right; // node and its left subtree are skipped
+      }
+    }
+
+    @Override /** More elements for traversing? */
+    public boolean hasNext() {
+      return remaining > 0 || !stack.isEmpty()
+        && (hi == null || stack.peek().element.compareTo(hi) <= 0);
+    }
+
+    @Override /** Get the current element and move to the next */
+    public E next() {
+      if (!hasNext())
+        throw new java.util.NoSuchElementException();
+
+      if (remaining == 0) {
+        TreeNode<E> node = stack.pop();
+        for (TreeNode<E> child = node.right; child != null; child = child.left)
+          stack.push(child);
+        current = node.element;
+        remaining = ((CountedNode<E>)node).count;
+      }
+      remaining--;
+      canRemove = true;
+      return current;
+    }
+
+    @Override /** Remove one occurrence of the element returned by the
+     * last call to next() */
+    public void remove() {
+      if (!canRemove)
+        throw new IllegalStateException();
+
+      delete(current); // Delete one occurrence
+      canRemove = false;
+
+      // While occurrences remain the node stays and only its count
+      // dropped. Otherwise the node may have been unlinked and the tree
+      // rebalanced, so search for the successor of current: O(height)
+      if (remaining == 0)
+        seek();
+    }
+  }
+
+  /** CountedNode is AVLTreeNode plus the number of occurrences */
+  protected static class CountedNode<E extends Comparable<E>>
+      extends AVLTree.AVLTreeNode<E> {
+    protected int count = 1; // New data field
+
+    public CountedNode(E e) {
+      super(e);
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/** An AVL tree whose nodes also store the size of their subtree.
+ * Sizes are kept up to date through insert, delete and rotations,
+ * so the k-th smallest element and the rank of an element are
+ * found in O(log n) without walking the tree. */
+public class OrderStatisticTree<E extends Comparable<E>> extends AVLTree<E> {
+  /** Create an empty order-statistic tree */
+  public OrderStatisticTree() {
+  }
+
+  /** Create a balanced order-statistic tree from an array of objects,
+   * see load */
+  public static <E extends Comparable<E>> OrderStatisticTree<E> of(E[] objects) {
+    OrderStatisticTree<E> tree = new OrderStatisticTree<E>();
+    tree.load(objects);
+    return tree;
+  }
+
+  @Override /** Override createNewNode to create an OSTreeNode */
+  protected OSTreeNode<E> createNewNode(E e) {
+    return new OSTreeNode<E>(e);
+  }
+
+  @Override /** Update the height and the subtree size of a node */
+  protected void updateHeight(AVLTreeNode<E> node) {
+    super.updateHeight(node);
+    ((OSTreeNode<E>)node).size = 1 + size(node.left) + size(node.right);
+  }
+
+  /** Return the size of a subtree, 0 for an empty subtree */
+  private int size(TreeNode<E> node) {
+    return node == null ? 0 : ((OSTreeNode<E>)node).size;
+  }
+
+  /** Return the k-th smallest element, k = 1 for the smallest.
+   * Throws IndexOutOfBoundsException if k is not in 1..getSize() */
+  public E select(int k) {
+    if (k < 1 || k > size)
+      throw new IndexOutOfBoundsException("k: " + k + ", size: " + size);
+
+    TreeNode<E> current = root;
+    while (true) {
+      int leftSize = size(current.left);
+      if (k <= leftSize)
+        current = current.left;
+      else if (k == leftSize + 1)
+        return current.element;
+      else {
+        k -= leftSize + 1; // Skip the left subtree and current
+        current = current.right;
+      }
+    }
+  }
+
+  /** Return the number of elements less than e */
+  public int rank(E e) {
+    return countBelow(e, false);
+  }
+
+  /** Return the number of elements e with lo <= e <= hi */
+  public int countInRange(E lo, E hi) {
+    if (lo.compareTo(hi) > 0)
+      return 0;
+    return countBelow(hi, true) - countBelow(lo, false);
+  }
+
+  /** Return the number of elements less than e,
+   * or less than or equal to e if inclusive is true */
+  private int countBelow(E e, boolean inclusive) {
+    int count = 0;
+    TreeNode<E> current = root;
+    while (current != null) {
+      int cmp = e.compareTo(current.element);
+      if (cmp < 0)
+        current = current.left;
+      else if (cmp > 0) {
+        count += size(current.left) + 1; // current and its left subtree are smaller
+        current = current.right;
+      }
+      else
+        return count + size(current.left) + (inclusive ? 1 : 0);
+    }
+
+    return count;
+  }
+
+  /** OSTreeNode is AVLTreeNode plus the size of its subtree */
+  protected static class OSTreeNode<E extends Comparable<E>>
+      extends AVLTree.AVLTreeNode<E> {
+    protected int size = 1; // New data field
+
+    public OSTreeNode(E e) {
+      super(e);
+    }
+  }
+}
@@ -0,0 +1,332 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+/** A persistent binary search tree. Nodes are never changed after
+ * they are created: insert and delete copy the nodes on the path from
+ * the root to the changed node and reuse every other subtree, then
+ * publish the new root. The tree is kept AVL-balanced, so an update
+ * copies O(log n) nodes.
+ *
+ * Because old roots stay valid, snapshot() is O(1): it returns a tree
+ * sharing the current root, and later updates to either tree do not
+ * affect the other. Readers need no locks; they see the version that
+ * was current when they read the root. Concurrent updates retry with
+ * compareAndSet, so none is lost. */
+public class PersistentBST<E extends Comparable<E>> extends AbstractTree<E> {
+  private final AtomicReference<Node<E>> root;
+
+  /** Create an empty persistent tree */
+  public PersistentBST() {
+    this((Node<E>)null);
+  }
+
+  /** Create a persistent tree from an array of objects */
+  public PersistentBST(E[] objects) {
+    this();
+    for (int i = 0; i < objects.length; i++)
+      insert(objects[i]);
+  }
+
+  /** Create a tree whose current version is the given root */
+  private PersistentBST(Node<E> root) {
+    this.root = new AtomicReference<Node<E>>(root);
+  }
+
+  /** Return a tree holding the current version of this tree in O(1).
+   * The two trees share all nodes but are updated independently */
+  public PersistentBST<E> snapshot() {
+    return new PersistentBST<E>(root.get());
+  }
+
+  @Override /** Returns true if the element is in the tree */
+  public boolean search(E e) {
+    Node<E> current = root.get();
+    while (current != null) {
+      int cmp = e.compareTo(current.element);
+      if (cmp < 0)
+        current = current.left;
+      else if (cmp > 0)
+        current = current.right;
+      else
+        return true; // Element is found
+    }
+
+    return false;
+  }
+
+  @Override /** Insert an element, copying the path to it.
+   * Return true if the element is inserted successfully */
+  public boolean insert(E e) {
+    while (true) {
+      Node<E> oldRoot = root.get();
+      Node<E> newRoot = insert(oldRoot, e);
+      if (newRoot == oldRoot)
+        return false; // Duplicate element not inserted
+      if (root.compareAndSet(oldRoot, newRoot))
+        return true;
+    }
+  }
+
+  /** Return the root of a copy of the subtree with e inserted,
+   * or node itself if e is already there */
+  private Node<E> insert(Node<E> node, E e) {
+    if (node == null)
+      return new Node<E>(e, null, null);
+
+    int cmp = e.compareTo(node.element);
+    if (cmp < 0) {
+      Node<E> left = insert(node.left, e);
+      return left == node.left ? node : balance(node.element, left, node.right);
+    }
+    else if (cmp > 0) {
+      Node<E> right = insert(node.right, e);
+      return right == node.right ? node : balance(node.element, node.left, right);
+    }
+    else
+      return node;
+  }
+
+  @Override /** Delete an element, copying the path to it.
+   * Return true if the element is deleted successfully */
+  public boolean delete(E e) {
+    while (true) {
+      Node<E> oldRoot = root.get();
+      Node<E> newRoot = delete(oldRoot, e);
+      if (newRoot == oldRoot)
+        return false; // Element is not in the tree
+      if (root.compareAndSet(oldRoot, newRoot))
+        return true;
+    }
+  }
+
+  /** Return the root of a copy of the subtree with e deleted,
+   * or node itself if e is not there */
+  private Node<E> delete(Node<E> node, E e) {
+    if (node == null)
+      return null;
+
+    int cmp = e.compareTo(node.element);
+    if (cmp < 0) {
+      Node<E> left = delete(node.left, e);
+      return left == node.left ? node : balance(node.element, left, node.right);
+    }
+    else if (cmp > 0) {
+      Node<E> right = delete(node.right, e);
+      return right == node.right ? node : balance(node.element, node.left, right);
+    }
+    else if (node.left == null)
+      return node.right;
+    else if (node.right == null)
+      return node.left;
+    else {
+      // Replace the element by the smallest element in the right subtree
+      Node<E> min = node.right;
+      while (min.left != null)
+        min = min.left;
+      return balance(min.element, node.left, deleteMin(node.right));
+    }
+  }
+
+  /** Return the root of a copy of the subtree without its smallest element */
+  private Node<E> deleteMin(Node<E> node) {
+    if (node.left == null)
+      return node.right;
+    return balance(node.element, deleteMin(node.left), node.right);
+  }
+
+  /** Create a node from an element and two subtrees whose heights
+   * differ by at most 2, rotating if they differ by 2 */
+  private Node<E> balance(E e, Node<E> left, Node<E> right) {
+    int hl = height(left);
+    int hr = height(right);
+    if (hl > hr + 1) {
+      if (height(left.left) >= height(left.right)) // LL rotation
+        return new Node<E>(left.element, left.left,
+          new Node<E>(e, left.right, right));
+      else // LR rotation
+        return new Node<E>(left.right.element,
+          new Node<E>(left.element, left.left, left.right.left),
+          new Node<E>(e, left.right.right, right));
+    }
+    else if (hr > hl + 1) {
+      if (height(right.right) >= height(right.left)) // RR rotation
+        return new Node<E>(right.element,
+          new Node<E>(e, left, right.left), right.right);
+      else // RL rotation
+        return new Node<E>(right.left.element,
+          new Node<E>(e, left, right.left.left),
+          new Node<E>(right.element, right.left.right, right.right));
+    }
+    else
+      return new Node<E>(e, left, right);
+  }
+
+  private static int height(Node<?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  @Override /** Get the number of elements in the current version */
+  public int getSize() {
+    Node<E> current = root.get();
+    return current == null ? 0 : current.size;
+  }
+
+  /** Remove all elements from the tree. Snapshots are not affected */
+  public void clear() {
+    root.set(null);
+  }
+
+  @Override /** Inorder traversal from the root */
+  public void inorder() {
+    inorder(root.get());
+  }
+
+  /** Inorder traversal from a subtree */
+  private void inorder(Node<E> node) {
+    if (node == null) return;
+    inorder(node.left);
+    System.out.print(node.element + " ");
+    inorder(node.right);
+  }
+
+  @Override /** Postorder traversal from the root */
+  public void postorder() {
+    postorder(root.get());
+  }
+
+  /** Postorder traversal from a subtree */
+  private void postorder(Node<E> node) {
+    if (node == null) return;
+    postorder(node.left);
+    postorder(node.right);
+    System.out.print(node.element + " ");
+  }
+
+  @Override /** Preorder traversal from the root */
+  public void preorder() {
+    preorder(root.get());
+  }
+
+  /** Preorder traversal from a subtree */
+  private void preorder(Node<E> node) {
+    if (node == null) return;
+    System.out.print(node.element + " ");
+    preorder(node.left);
+    preorder(node.right);
+  }
+
+  @Override /** Return the greatest element less than or equal to e,
+   * or null if there is no such element */
+  public E floor(E e) {
+    return closest(e, true, true);
+  }
+
+  @Override /** Return the least element greater than or equal to e,
+   * or null if there is no such element */
+  public E ceiling(E e) {
+    return closest(e, false, true);
+  }
+
+  @Override /** Return the least element strictly greater than e,
+   * or null if there is no such element */
+  public E higher(E e) {
+    return closest(e, false, false);
+  }
+
+  @Override /** Return the greatest element strictly less than e,
+   * or null if there is no such element */
+  public E lower(E e) {
+    return closest(e, true, false);
+  }
+
+  /** Search for the closest element below (or above) e, allowing
+   * e itself if inclusive is true. One root-to-leaf walk */
+  private E closest(E e, boolean below, boolean inclusive) {
+    E best = null;
+    Node<E> current = root.get();
+    while (current != null) {
+      int cmp = e.compareTo(current.element);
+      if (cmp == 0 && inclusive)
+        return current.element;
+
+      if (below ? cmp > 0 : cmp < 0) {
+        best = current.element; // A candidate, look for a closer one
+        current = below ? current.right : current.left;
+      }
+      else
+        current = below ? current.left : current.right;
+    }
+
+    return best;
+  }
+
+  @Override /** Obtain an iterator over the current version. Use inorder.
+   * Later updates do not affect the iterator */
+  public java.util.Iterator<E> iterator() {
+    return new VersionIterator(root.get(), null, null);
+  }
+
+  @Override /** Obtain an inorder iterator over the elements e with
+   * lo <= e <= hi in the current version */
+  public java.util.Iterator<E> subTree(E lo, E hi) {
+    return new VersionIterator(root.get(), lo, hi);
+  }
+
+  // Inner class VersionIterator
+  // Walks one version of the tree with a stack of nodes still to be
+  // visited. Nodes never change, so no copy of the tree is needed
+  private class VersionIterator implements java.util.Iterator<E> {
+    private java.util.ArrayDeque<Node<E>> stack =
+      new java.util.ArrayDeque<Node<E>>();
+    private E hi; // Largest element to visit, null for no bound
+
+    public VersionIterator(Node<E> root, E lo, E hi) {
+      this.hi = hi;
+      // Push the path to the smallest element that is at least lo
+      Node<E> current = root;
+      while (current != null) {
+        if (lo == null || lo.compareTo(current.element) <= 0) {
+          stack.push(current);
+          current = current.left;
+        }
+        else
+          current = current.right;
+      }
+    }
+
+    @Override /** More elements for traversing? */
+    public boolean hasNext() {
+      return !stack.isEmpty()
+        && (hi == null || stack.peek().element.compareTo(hi) <= 0);
+    }
+
+    @Override /** Get the current element and move to the next */
+    public E next() {
+      if (!hasNext())
+        throw new java.util.NoSuchElementException();
+
+      Node<E> node = stack.pop();
+      for (Node<E> current = node.right; current != null; current = current.left)
+        stack.push(current);
+      return node.element;
+    }
+  }
+
+  /** An immutable node. The height and size of its subtree are fixed
+   * when it is created */
+  private static class Node<E> {
+    final E element;
+    final Node<E> left;
+    final Node<E> right;
+    final int height;
+    final int size;
+
+    Node(E element, Node<E> left, Node<E> right) {
+      this.element = element;
+      this.left = left;
+      this.right = right;
+      this.height = 1 + Math.max(height(left), height(right));
+      this.size = 1 + (left == null ? 0 : left.size)
+        + (right == null ? 0 : right.size);
+    }
+  }
+}
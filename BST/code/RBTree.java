@@ -0,0 +1,244 @@
+/** A left-leaning red-black tree. Red links always lean left and
+ * no node has two red links, so every path from the root to a null
+ * link has the same number of black links and the height is at
+ * most 2 log n. */
+public class RBTree<E extends Comparable<E>> extends BST<E> {
+  /** Create an empty red-black tree */
+  public RBTree() {
+  }
+
+  /** Create a red-black tree from an array of objects, see load */
+  public static <E extends Comparable<E>> RBTree<E> of(E[] objects) {
+    RBTree<E> tree = new RBTree<E>();
+    tree.load(objects);
+    return tree;
+  }
+
+  @Override /** Override createNewNode to create a red RBTreeNode */
+  protected RBTreeNode<E> createNewNode(E e) {
+    return new RBTreeNode<E>(e);
+  }
+
+  @Override /** Colours cannot be recomputed from the shape alone */
+  protected boolean canRebuildShape() {
+    return false;
+  }
+
+  @Override /** Build a valid red-black tree from sorted[lo..hi] in O(n).
+   * The tree is built as a 2-3 tree with all leaves at the same depth,
+   * where a node with two elements becomes a black node with a red
+   * left child */
+  protected TreeNode<E> buildBalanced(E[] sorted, int lo, int hi) {
+    int n = hi - lo + 1;
+    if (n <= 0) return null;
+
+    // Largest black height b with 2^b - 1 <= n; then n <= 3^b - 1 too
+    int blackHeight = 0;
+    while ((1L << (blackHeight + 1)) - 1 <= n)
+      blackHeight++;
+
+    return build23(sorted, lo, hi, blackHeight);
+  }
+
+  /** Build a subtree of the given black height from sorted[lo..hi].
+   * The number of elements must be between 2^b - 1 and 3^b - 1 */
+  private RBTreeNode<E> build23(E[] sorted, int lo, int hi, int blackHeight) {
+    if (blackHeight == 0) return null; // No elements left
+
+    int n = hi - lo + 1;
+    long maxChild = 1; // Most elements a child subtree can hold: 3^(b-1) - 1
+    for (int i = 1; i < blackHeight; i++)
+      maxChild *= 3;
+    maxChild--;
+
+    if (n - 1 <= 2 * maxChild) {
+      // 2-node: one element and two children
+      int mid = lo + (n - 1) / 2;
+      RBTreeNode<E> node = createNewNode(sorted[mid]);
+      node.red = false;
+      node.left = build23(sorted, lo, mid - 1, blackHeight - 1);
+      node.right = build23(sorted, mid + 1, hi, blackHeight - 1);
+      return node;
+    }
+    else {
+      // 3-node: two elements and three children of similar size
+      int rest = n - 2;
+      int first = lo + rest / 3;
+      int second = first + 1 + (rest - rest / 3) / 2;
+      RBTreeNode<E> small = createNewNode(sorted[first]); // Red
+      small.left = build23(sorted, lo, first - 1, blackHeight - 1);
+      small.right = build23(sorted, first + 1, second - 1, blackHeight - 1);
+      RBTreeNode<E> node = createNewNode(sorted[second]);
+      node.red = false;
+      node.left = small;
+      node.right = build23(sorted, second + 1, hi, blackHeight - 1);
+      return node;
+    }
+  }
+
+  @Override /** Insert an element and rebalance on the way back up
+   * Return true if the element is inserted successfully */
+  public boolean insert(E e) {
+    int oldSize = size;
+    root = insert((RBTreeNode<E>)root, e);
+    ((RBTreeNode<E>)root).red = false; // The root is always black
+    return size > oldSize;
+  }
+
+  /** Insert e into the subtree rooted at h and return the new subtree root */
+  private RBTreeNode<E> insert(RBTreeNode<E> h, E e) {
+    if (h == null) {
+      size++;
+      return createNewNode(e);
+    }
+
+    int cmp = e.compareTo(h.element);
+    if (cmp < 0)
+      h.left = insert((RBTreeNode<E>)h.left, e);
+    else if (cmp > 0)
+      h.right = insert((RBTreeNode<E>)h.right, e);
+    else
+      return h; // Duplicate node not inserted
+
+    return balance(h);
+  }
+
+  @Override /** Delete an element from the red-black tree.
+   * Return true if the element is deleted successfully
+   * Return false if the element is not in the tree */
+  public boolean delete(E e) {
+    if (!search(e))
+      return false; // Element is not in the tree
+
+    RBTreeNode<E> r = (RBTreeNode<E>)root;
+    // If both children of the root are black, set the root to red
+    if (!isRed(r.left) && !isRed(r.right))
+      r.red = true;
+
+    root = delete(r, e);
+    if (root != null)
+      ((RBTreeNode<E>)root).red = false;
+
+    size--;
+    return true; // Element deleted successfully
+  }
+
+  /** Delete e (known to be present) from the subtree rooted at h */
+  private RBTreeNode<E> delete(RBTreeNode<E> h, E e) {
+    if (e.compareTo(h.element) < 0) {
+      if (!isRed(h.left) && !isRed(h.left.left))
+        h = moveRedLeft(h);
+      h.left = delete((RBTreeNode<E>)h.left, e);
+    }
+    else {
+      if (isRed(h.left))
+        h = rotateRight(h);
+      if (e.compareTo(h.element) == 0 && h.right == null)
+        return null;
+      if (!isRed(h.right) && !isRed(h.right.left))
+        h = moveRedRight(h);
+      if (e.compareTo(h.element) == 0) {
+        // Replace the element by the smallest element in the right subtree
+        TreeNode<E> min = h.right;
+        while (min.left != null)
+          min = min.left;
+        moveElement(min, h);
+        h.right = deleteMin((RBTreeNode<E>)h.right);
+      }
+      else
+        h.right = delete((RBTreeNode<E>)h.right, e);
+    }
+
+    return balance(h);
+  }
+
+  /** Delete the smallest element from the subtree rooted at h */
+  private RBTreeNode<E> deleteMin(RBTreeNode<E> h) {
+    if (h.left == null)
+      return null;
+
+    if (!isRed(h.left) && !isRed(h.left.left))
+      h = moveRedLeft(h);
+
+    h.left = deleteMin((RBTreeNode<E>)h.left);
+    return balance(h);
+  }
+
+  /** Return true if the node is red; null links are black */
+  private boolean isRed(TreeNode<E> node) {
+    return node != null && ((RBTreeNode<E>)node).red;
+  }
+
+  /** Make a right-leaning red link lean to the left */
+  private RBTreeNode<E> rotateLeft(RBTreeNode<E> h) {
+    RBTreeNode<E> x = (RBTreeNode<E>)h.right;
+    h.right = x.left;
+    x.left = h;
+    x.red = h.red;
+    h.red = true;
+    rotations++;
+    return x;
+  }
+
+  /** Make a left-leaning red link lean to the right */
+  private RBTreeNode<E> rotateRight(RBTreeNode<E> h) {
+    RBTreeNode<E> x = (RBTreeNode<E>)h.left;
+    h.left = x.right;
+    x.right = h;
+    x.red = h.red;
+    h.red = true;
+    rotations++;
+    return x;
+  }
+
+  /** Flip the colors of a node and its two children */
+  private void flipColors(RBTreeNode<E> h) {
+    h.red = !h.red;
+    ((RBTreeNode<E>)h.left).red = !((RBTreeNode<E>)h.left).red;
+    ((RBTreeNode<E>)h.right).red = !((RBTreeNode<E>)h.right).red;
+  }
+
+  /** Assuming h is red and both h.left and h.left.left are black,
+   * make h.left or one of its children red */
+  private RBTreeNode<E> moveRedLeft(RBTreeNode<E> h) {
+    flipColors(h);
+    if (isRed(h.right.left)) {
+      h.right = rotateRight((RBTreeNode<E>)h.right);
+      h = rotateLeft(h);
+      flipColors(h);
+    }
+    return h;
+  }
+
+  /** Assuming h is red and both h.right and h.right.left are black,
+   * make h.right or one of its children red */
+  private RBTreeNode<E> moveRedRight(RBTreeNode<E> h) {
+    flipColors(h);
+    if (isRed(h.left.left)) {
+      h = rotateRight(h);
+      flipColors(h);
+    }
+    return h;
+  }
+
+  /** Restore the red-black invariants at h */
+  private RBTreeNode<E> balance(RBTreeNode<E> h) {
+    if (isRed(h.right) && !isRed(h.left))
+      h = rotateLeft(h);
+    if (isRed(h.left) && isRed(h.left.left))
+      h = rotateRight(h);
+    if (isRed(h.left) && isRed(h.right))
+      flipColors(h);
+    return h;
+  }
+
+  /** RBTreeNode is TreeNode plus a color. New nodes are red */
+  protected static class RBTreeNode<E extends Comparable<E>>
+      extends BST.TreeNode<E> {
+    protected boolean red = true; // New data field
+
+    public RBTreeNode(E e) {
+      super(e);
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/** A splay tree. Every search, insert and delete moves the node it
+ * reaches to the root with rotations that also roughly halve the depth
+ * of the nodes on its path, so keys that are accessed often stay near
+ * the top. A lookup of a key among the k most recent distinct accesses
+ * costs O(log k), and any sequence of operations costs O(log n)
+ * amortized per operation (Sleator and Tarjan). Uses top-down
+ * splaying, which needs no parent links and no recursion.
+ *
+ * Since search changes the shape of the tree, it is a write: a splay
+ * tree cannot be searched by several threads at once. */
+public class SplayTree<E extends Comparable<E>> extends BST<E> {
+  // Holds the left and right trees assembled while splaying
+  private final TreeNode<E> header = new TreeNode<E>(null);
+
+  /** Create an empty splay tree */
+  public SplayTree() {
+  }
+
+  /** Create a balanced splay tree from an array of objects, see load */
+  public static <E extends Comparable<E>> SplayTree<E> of(E[] objects) {
+    SplayTree<E> tree = new SplayTree<E>();
+    tree.load(objects);
+    return tree;
+  }
+
+  @Override /** Search for an element and splay the last node reached
+   * to the root. Returns true if the element is in the tree */
+  public boolean search(E e) {
+    if (root == null)
+      return false;
+    root = splay(root, e);
+    return e.compareTo(root.element) == 0;
+  }
+
+  @Override /** Insert an element as the new root.
+   * Return true if the element is inserted successfully */
+  public boolean insert(E e) {
+    if (root == null) {
+      root = createNewNode(e);
+      size++;
+      return true;
+    }
+
+    root = splay(root, e);
+    int cmp = e.compareTo(root.element);
+    if (cmp == 0)
+      return false; // Duplicate node not inserted
+
+    // The old root is the closest element, so split the tree there
+    TreeNode<E> node = createNewNode(e);
+    if (cmp < 0) {
+      node.left = root.left;
+      node.right = root;
+      root.left = null;
+    }
+    else {
+      node.right = root.right;
+      node.left = root;
+      root.right = null;
+    }
+    root = node;
+    size++;
+    return true; // Element inserted successfully
+  }
+
+  @Override /** Delete an element from the splay tree.
+   * Return true if the element is deleted successfully
+   * Return false if the element is not in the tree */
+  public boolean delete(E e) {
+    if (root == null)
+      return false;
+
+    root = splay(root, e);
+    if (e.compareTo(root.element) != 0)
+      return false; // Element is not in the tree
+
+    if (root.left == null)
+      root = root.right;
+    else {
+      // Splaying the left subtree for e brings its largest element
+      // to its root, which then has no right child
+      TreeNode<E> right = root.right;
+      root = splay(root.left, e);
+      root.right = right;
+    }
+
+    size--;
+    return true; // Element deleted successfully
+  }
+
+  /** Splay the subtree rooted at t for e: bring the node holding e,
+   * or the last node on the search path for e, to the root. Returns
+   * the new root */
+  private TreeNode<E> splay(TreeNode<E> t, E e) {
+    TreeNode<E> leftMax = header;  // Largest node in the left tree
+    TreeNode<E> rightMin = header; // Smallest node in the right tree
+    header.left = header.right = null;
+
+    while (true) {
+      int cmp = e.compareTo(t.element);
+      if (cmp < 0) {
+        if (t.left == null)
+          break;
+        if (e.compareTo(t.left.element) < 0) {
+          t = rotateRight(t); // Zig-zig: rotate first
+          if (t.left == null)
+            break;
+        }
+        rightMin.left = t; // Link t into the right tree
+        rightMin = t;
+        t = t.left;
+      }
+      else if (cmp > 0) {
+        if (t.right == null)
+          break;
+        if (e.compareTo(t.right.element) > 0) {
+          t = rotateLeft(t); // Zig-zig: rotate first
+          if (t.right == null)
+            break;
+        }
+        leftMax.right = t; // Link t into the left tree
+        leftMax = t;
+        t = t.right;
+      }
+      else
+        break;
+    }
+
+    // Reassemble: t's subtrees go to the side trees, which become its children
+    leftMax.right = t.left;
+    rightMin.left = t.right;
+    t.left = header.right;
+    t.right = header.left;
+    header.left = header.right = null;
+    return t;
+  }
+
+  /** Rotate the left child of node up and return it */
+  private TreeNode<E> rotateRight(TreeNode<E> node) {
+    TreeNode<E> child = node.left;
+    node.left = child.right;
+    child.right = node;
+    rotations++;
+    return child;
+  }
+
+  /** Rotate the right child of node up and return it */
+  private TreeNode<E> rotateLeft(TreeNode<E> node) {
+    TreeNode<E> child = node.right;
+    node.right = child.left;
+    child.left = node;
+    rotations++;
+    return child;
+  }
+}
@@ -0,0 +1,53 @@
+public class TestAVLTree {
+  public static void main(String[] args) {
+    // Sorted input: a plain BST degenerates into a linked list
+    Integer[] numbers = new Integer[1000];
+    for (int i = 0; i < numbers.length; i++)
+      numbers[i] = i;
+
+    BST<Integer> bst = new BST<Integer>();
+    AVLTree<Integer> avl = new AVLTree<Integer>();
+    RBTree<Integer> rb = new RBTree<Integer>();
+    for (int i = 0; i < numbers.length; i++) {
+      bst.insert(numbers[i]);
+      avl.insert(numbers[i]);
+      rb.insert(numbers[i]);
+    }
+    System.out.println("Height after inserting 0..999 in order:");
+    System.out.println("BST: " + height(bst.getRoot()));
+    System.out.println("AVL: " + height(avl.getRoot()));
+    System.out.println("Red-black: " + height(rb.getRoot()));
+
+    // Delete every even number
+    for (int i = 0; i < numbers.length; i += 2) {
+      avl.delete(i);
+      rb.delete(i);
+    }
+    System.out.println("\nAfter deleting the even numbers:");
+    System.out.println("AVL: size " + avl.getSize() + ", height " + height(avl.getRoot()));
+    System.out.println("Red-black: size " + rb.getSize() + ", height " + height(rb.getRoot()));
+
+    System.out.print("Is 501 in the AVL tree? " + avl.search(501));
+    System.out.print("\nIs 500 in the red-black tree? " + rb.search(500));
+
+    AVLTree<String> tree = new AVLTree<String>();
+    tree.insert("George");
+    tree.insert("Michael");
+    tree.insert("Tom");
+    tree.insert("Adam");
+    tree.insert("Jones");
+    tree.insert("Peter");
+    tree.insert("Daniel");
+    System.out.print("\nInorder (sorted): ");
+    tree.inorder();
+    System.out.print("\nPreorder: ");
+    tree.preorder();
+    System.out.println();
+  }
+
+  /** Return the number of nodes on the longest root-to-leaf path */
+  public static int height(BST.TreeNode<?> root) {
+    if (root == null) return 0;
+    return 1 + Math.max(height(root.left), height(root.right));
+  }
+}
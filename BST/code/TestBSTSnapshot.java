@@ -0,0 +1,107 @@
+import java.io.*;
+
+public class TestBSTSnapshot {
+  public static void main(String[] args) throws IOException {
+    Integer[] numbers = new Integer[100];
+    for (int i = 0; i < numbers.length; i++)
+      numbers[i] = (i * 37) % numbers.length; // 0..99 in scrambled order
+
+    BSTSnapshot<Integer> snapshot =
+      new BSTSnapshot<Integer>(ElementCodec.INTEGER);
+
+    // An AVL tree reloaded in its exact shape gets its heights back
+    AVLTree<Integer> avl = new AVLTree<Integer>();
+    for (Integer e: numbers)
+      avl.insert(e);
+    AVLTree<Integer> avlCopy = new AVLTree<Integer>();
+    snapshot.read(avlCopy, new ByteArrayInputStream(
+      write(snapshot, avl, BSTSnapshot.Order.PREORDER)), false);
+    System.out.println("AVL exact shape: same preorder "
+      + preorder(avl).equals(preorder(avlCopy)) + ", size " + avlCopy.getSize());
+    for (int i = 0; i < numbers.length; i += 2)
+      avlCopy.delete(i);
+    System.out.println("AVL after deleting the even numbers: size "
+      + avlCopy.getSize() + ", height " + TestAVLTree.height(avlCopy.getRoot()));
+
+    // A red-black tree cannot be rebuilt in the stored shape
+    RBTree<Integer> rb = RBTree.of(numbers);
+    byte[] rbSnapshot = write(snapshot, rb, BSTSnapshot.Order.PREORDER);
+    RBTree<Integer> rbCopy = new RBTree<Integer>();
+    try {
+      snapshot.read(rbCopy, new ByteArrayInputStream(rbSnapshot), false);
+      System.out.println("Red-black exact shape: accepted (unexpected)");
+    }
+    catch (IllegalArgumentException ex) {
+      System.out.println("Red-black exact shape: refused");
+    }
+    snapshot.read(rbCopy, new ByteArrayInputStream(rbSnapshot), true);
+    for (int i = 0; i < numbers.length; i += 2)
+      rbCopy.delete(i);
+    System.out.println("Red-black reloaded balanced, after deleting the even numbers: size "
+      + rbCopy.getSize() + ", valid " + isRedBlack(rbCopy.getRoot()));
+
+    // A MonitoredBST restores its size bookkeeping through afterLoad
+    MonitoredBST<Integer> monitored = MonitoredBST.of(numbers);
+    MonitoredBST<Integer> monitoredCopy = new MonitoredBST<Integer>();
+    snapshot.read(monitoredCopy, new ByteArrayInputStream(
+      write(snapshot, monitored, BSTSnapshot.Order.SORTED)), false);
+    for (int i = 0; i < 40; i++)
+      monitoredCopy.delete(i);
+    System.out.println("MonitoredBST after deleting 40 of 100: rebuilds "
+      + monitoredCopy.getRebuilds() + ", healthy " + monitoredCopy.isHealthy());
+
+    // A multiset keeps its counts in every order
+    MultisetTree<Integer> multiset =
+      MultisetTree.of(new Integer[] {5, 1, 2, 1, 5, 1});
+    for (BSTSnapshot.Order order: BSTSnapshot.Order.values())
+      for (boolean balanced: new boolean[] {false, true}) {
+        MultisetTree<Integer> copy = new MultisetTree<Integer>();
+        snapshot.read(copy, new ByteArrayInputStream(
+          write(snapshot, multiset, order)), balanced);
+        System.out.println("Multiset " + order + (balanced ? " balanced" : "")
+          + ": " + java.util.Arrays.toString(copy.stream().toArray())
+          + ", size " + copy.getSize() + ", distinct " + copy.getDistinctSize()
+          + ", count(1) " + copy.count(1));
+      }
+  }
+
+  /** Write a snapshot of a tree to a byte array */
+  private static byte[] write(BSTSnapshot<Integer> snapshot,
+      BST<Integer> tree, BSTSnapshot.Order order) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    snapshot.write(tree, out, order);
+    return out.toByteArray();
+  }
+
+  /** Return the elements of a tree in preorder */
+  private static String preorder(BST<Integer> tree) {
+    StringBuilder builder = new StringBuilder();
+    tree.preorder(e -> {
+      builder.append(e).append(' ');
+      return true;
+    });
+    return builder.toString();
+  }
+
+  /** Return true if no red node has a red child and every path from the
+   * root to a null link has the same number of black nodes */
+  private static boolean isRedBlack(BST.TreeNode<Integer> root) {
+    return !isRed(root) && blackHeight(root) >= 0;
+  }
+
+  /** Return the black height of a subtree, or -1 if it is not valid */
+  private static int blackHeight(BST.TreeNode<Integer> node) {
+    if (node == null) return 0;
+    RBTree.RBTreeNode<Integer> rbNode = (RBTree.RBTreeNode<Integer>)node;
+    if (rbNode.red && (isRed(node.left) || isRed(node.right)))
+      return -1;
+    int left = blackHeight(node.left);
+    int right = blackHeight(node.right);
+    if (left < 0 || left != right) return -1;
+    return left + (rbNode.red ? 0 : 1);
+  }
+
+  private static boolean isRed(BST.TreeNode<Integer> node) {
+    return node != null && ((RBTree.RBTreeNode<Integer>)node).red;
+  }
+}
@@ -24,4 +24,19 @@ public interface Tree<E> extends Iterable<E> {
 
   /** Return true if the tree is empty */
   public boolean isEmpty();
+
+  /** Return the greatest element less than or equal to e, or null */
+  public E floor(E e);
+
+  /** Return the least element greater than or equal to e, or null */
+  public E ceiling(E e);
+
+  /** Return the least element strictly greater than e, or null */
+  public E higher(E e);
+
+  /** Return the greatest element strictly less than e, or null */
+  public E lower(E e);
+
+  /** Return an inorder iterator over the elements e with lo <= e <= hi */
+  public java.util.Iterator<E> subTree(E lo, E hi);
 }
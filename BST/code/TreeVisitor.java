@@ -0,0 +1,5 @@
+public interface TreeVisitor<E> {
+  /** Visit an element during a traversal
+   * Return false to stop the traversal, true to go on */
+  public boolean visit(E e);
+}
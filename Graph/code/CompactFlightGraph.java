@@ -0,0 +1,290 @@
+package code;
+
+import java.util.*;
+
+/**
+ * CompactFlightGraph class storing a read-only snapshot of a FlightGraph in
+ * primitive arrays (compressed sparse row layout).
+ *
+ * Cities are numbered 0..n-1. The flights leaving city i are stored at indexes
+ * edgeStart[i] .. edgeStart[i + 1] - 1 of the edgeTarget and edgeCost arrays,
+ * sorted by increasing cost. Each flight costs 8 bytes (two ints) instead of a
+ * separate Edge object of roughly 32 bytes.
+ *
+ * Because flights are sorted by cost, a search with a known upper bound can stop
+ * scanning a city's flights as soon as distance + cost exceeds the bound.
+ *
+ * @author Data Structure Course
+ * @version 1.0
+ */
+public class CompactFlightGraph {
+    private String[] cityNames;              // City name for every index
+    private Map<String, Integer> cityIndex;  // City name to index
+    private int[] edgeStart;                 // First flight of every city, plus end marker
+    private int[] edgeTarget;                // Destination city index of every flight
+    private int[] edgeCost;                  // Cost of every flight
+
+    /**
+     * Constructor building a snapshot of the given flight graph.
+     * Later changes to the flight graph are not reflected in the snapshot.
+     * @param graph The flight network graph
+     */
+    public CompactFlightGraph(FlightGraph graph) {
+        int numberOfCities = graph.getNumberOfCities();
+        cityNames = new String[numberOfCities];
+        cityIndex = new HashMap<>(numberOfCities * 2);
+        edgeStart = new int[numberOfCities + 1];
+
+        // First pass: number the cities and count their flights
+        int index = 0;
+        int numberOfFlights = 0;
+        for (Vertex city = graph.getFirstVertex(); city != null; city = city.getNextVertex()) {
+            cityNames[index] = city.getCityName();
+            cityIndex.put(city.getCityName(), index);
+            for (Edge edge = city.getFirstEdge(); edge != null; edge = edge.getNextEdge()) {
+                numberOfFlights++;
+            }
+            edgeStart[++index] = numberOfFlights;
+        }
+
+        // Second pass: copy the flights, sorted by cost within each city
+        edgeTarget = new int[numberOfFlights];
+        edgeCost = new int[numberOfFlights];
+        index = 0;
+        for (Vertex city = graph.getFirstVertex(); city != null; city = city.getNextVertex()) {
+            int start = edgeStart[index];
+            long[] flights = new long[edgeStart[index + 1] - start];
+            int i = 0;
+            for (Edge edge = city.getFirstEdge(); edge != null; edge = edge.getNextEdge()) {
+                // Pack (cost, target) so a plain sort orders by cost
+                int target = cityIndex.get(edge.getDestinationName());
+                flights[i++] = ((long) edge.getFlightCost() << 32) | target;
+            }
+            Arrays.sort(flights);
+            for (i = 0; i < flights.length; i++) {
+                edgeCost[start + i] = (int) (flights[i] >>> 32);
+                edgeTarget[start + i] = (int) flights[i];
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Get the number of cities in the snapshot
+     * @return Number of cities
+     */
+    public int getNumberOfCities() {
+        return cityNames.length;
+    }
+
+    /**
+     * Get the number of flights in the snapshot
+     * @return Number of flights
+     */
+    public int getNumberOfFlights() {
+        return edgeTarget.length;
+    }
+
+    /**
+     * Get the index of a city
+     * @param cityName Name of the city
+     * @return City index, or -1 if the city doesn't exist
+     */
+    public int getCityIndex(String cityName) {
+        Integer index = cityIndex.get(cityName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Get the name of a city
+     * @param index City index
+     * @return City name
+     */
+    public String getCityName(int index) {
+        return cityNames[index];
+    }
+
+    /**
+     * Get the index of the first (cheapest) flight leaving a city
+     * @param city City index
+     * @return Flight index
+     */
+    public int getEdgeStart(int city) {
+        return edgeStart[city];
+    }
+
+    /**
+     * Get the index just past the last flight leaving a city
+     * @param city City index
+     * @return Flight index
+     */
+    public int getEdgeEnd(int city) {
+        return edgeStart[city + 1];
+    }
+
+    /**
+     * Get the destination of a flight
+     * @param edge Flight index
+     * @return Destination city index
+     */
+    public int getTarget(int edge) {
+        return edgeTarget[edge];
+    }
+
+    /**
+     * Get the cost of a flight
+     * @param edge Flight index
+     * @return Flight cost
+     */
+    public int getCost(int edge) {
+        return edgeCost[edge];
+    }
+
+    /**
+     * Get the cost of a direct flight between two cities
+     * @param fromCity Source city index
+     * @param toCity Destination city index
+     * @return Flight cost, or -1 if no direct flight exists
+     */
+    public int getFlightCost(int fromCity, int toCity) {
+        for (int e = edgeStart[fromCity]; e < edgeStart[fromCity + 1]; e++) {
+            if (edgeTarget[e] == toCity) {
+                return edgeCost[e];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the cheapest route using Dijkstra's algorithm over the primitive arrays
+     * @param fromCity Source city
+     * @param toCity Destination city
+     * @return RouteInfo containing the cheapest route and total cost
+     */
+    public FlightRoutingSystem.RouteInfo findCheapestRoute(String fromCity, String toCity) {
+        return findCheapestRoute(fromCity, toCity, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find the cheapest route whose total cost does not exceed maxCost.
+     * Flights are scanned in cost order, so the scan of a city stops at the
+     * first flight that would exceed the bound. The bound tightens to the best
+     * cost found for the destination so far.
+     * @param fromCity Source city
+     * @param toCity Destination city
+     * @param maxCost Maximum total cost allowed
+     * @return RouteInfo containing the cheapest route and total cost
+     */
+    public FlightRoutingSystem.RouteInfo findCheapestRoute(String fromCity, String toCity, int maxCost) {
+        int source = getCityIndex(fromCity);
+        int target = getCityIndex(toCity);
+        if (source == -1 || target == -1 || maxCost < 0) {
+            return new FlightRoutingSystem.RouteInfo(new ArrayList<>(), -1);
+        }
+
+        int[] distance = new int[cityNames.length];
+        int[] parent = new int[cityNames.length];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        distance[source] = 0;
+        parent[source] = -1;
+
+        MinHeap heap = new MinHeap();
+        heap.push(0, source);
+        long bound = maxCost;
+
+        while (!heap.isEmpty()) {
+            long top = heap.pop();
+            int currentDistance = (int) (top >>> 32);
+            int current = (int) top;
+
+            // If we've already found a better path, skip
+            if (currentDistance > distance[current]) {
+                continue;
+            }
+
+            // Check if we reached the target
+            if (current == target) {
+                return new FlightRoutingSystem.RouteInfo(reconstructPath(parent, target), currentDistance);
+            }
+
+            for (int e = edgeStart[current]; e < edgeStart[current + 1]; e++) {
+                long newDistance = (long) currentDistance + edgeCost[e];
+                if (newDistance > bound) {
+                    break; // Remaining flights are even more expensive
+                }
+                int neighbor = edgeTarget[e];
+                if (newDistance < distance[neighbor]) {
+                    distance[neighbor] = (int) newDistance;
+                    parent[neighbor] = current;
+                    heap.push((int) newDistance, neighbor);
+                    if (neighbor == target) {
+                        bound = newDistance;
+                    }
+                }
+            }
+        }
+
+        return new FlightRoutingSystem.RouteInfo(new ArrayList<>(), -1); // No route found
+    }
+
+    /**
+     * Helper method to reconstruct a path from the parent array
+     * @param parent Parent city index of every city, -1 for the start
+     * @param end Ending city index
+     * @return List of city names representing the path
+     */
+    List<String> reconstructPath(int[] parent, int end) {
+        List<String> path = new ArrayList<>();
+        for (int current = end; current != -1; current = parent[current]) {
+            path.add(cityNames[current]);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Inner class implementing a binary min-heap of (distance, city) pairs
+     * packed into longs, so no objects are allocated per heap entry
+     */
+    static class MinHeap {
+        private long[] heap = new long[16];
+        private int size = 0;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int distance, int city) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            long entry = ((long) distance << 32) | city;
+            int i = size++;
+            while (i > 0 && heap[(i - 1) / 2] > entry) {
+                heap[i] = heap[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            heap[i] = entry;
+        }
+
+        /** Remove and return the smallest entry; distance in the high 32 bits, city in the low */
+        long pop() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (heap[child] >= last) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+}
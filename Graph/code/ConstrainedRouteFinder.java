@@ -0,0 +1,202 @@
+package code;
+
+import java.util.*;
+
+/**
+ * ConstrainedRouteFinder class answering route queries with a limit on the
+ * number of flights or on the total cost, such as "cheapest route with at most
+ * 2 stops" or "fewest flights under $800".
+ *
+ * Both queries use the same layered search (Bellman-Ford style dynamic programming):
+ * layer k holds the cities whose cheapest cost using at most k flights improved
+ * in that layer. A label (city, cost) is only kept when it is cheaper than every
+ * label for that city with fewer flights, so each layer costs O(E) and the whole
+ * search is O(k * E), never exponential like findAllRoutes.
+ *
+ * Labels are stored in primitive arrays and flights are scanned in cost order
+ * (see CompactFlightGraph), so a scan stops as soon as the cost limit is exceeded.
+ *
+ * @author Data Structure Course
+ * @version 1.0
+ */
+public class ConstrainedRouteFinder {
+    private final CompactFlightGraph graph;
+
+    /**
+     * Constructor
+     * @param graph The flight network snapshot
+     */
+    public ConstrainedRouteFinder(CompactFlightGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Find the cheapest route using at most maxStops intermediate cities
+     * @param fromCity Source city
+     * @param toCity Destination city
+     * @param maxStops Maximum number of stops (0 means direct flights only)
+     * @return RouteInfo containing the route and total cost
+     */
+    public FlightRoutingSystem.RouteInfo findCheapestRouteWithMaxStops(String fromCity, String toCity, int maxStops) {
+        if (maxStops < 0) {
+            return new FlightRoutingSystem.RouteInfo(new ArrayList<>(), -1);
+        }
+        return search(fromCity, toCity, maxStops + 1, Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * Find the route with the fewest flights whose total cost does not exceed maxCost.
+     * Among routes with that number of flights, the cheapest one is returned.
+     * @param fromCity Source city
+     * @param toCity Destination city
+     * @param maxCost Maximum total cost allowed
+     * @return RouteInfo containing the route and total cost
+     */
+    public FlightRoutingSystem.RouteInfo findFewestHopsRouteWithinBudget(String fromCity, String toCity, int maxCost) {
+        if (maxCost < 0) {
+            return new FlightRoutingSystem.RouteInfo(new ArrayList<>(), -1);
+        }
+        return search(fromCity, toCity, graph.getNumberOfCities() - 1, maxCost, true);
+    }
+
+    /**
+     * Layered label-correcting search
+     * @param fromCity Source city
+     * @param toCity Destination city
+     * @param maxFlights Maximum number of flights (layers)
+     * @param maxCost Maximum total cost
+     * @param stopAtFirstLayer true to return as soon as a layer reaches the destination
+     * @return RouteInfo containing the route and total cost
+     */
+    private FlightRoutingSystem.RouteInfo search(String fromCity, String toCity,
+                                                 int maxFlights, int maxCost, boolean stopAtFirstLayer) {
+        int source = graph.getCityIndex(fromCity);
+        int target = graph.getCityIndex(toCity);
+        if (source == -1 || target == -1) {
+            return new FlightRoutingSystem.RouteInfo(new ArrayList<>(), -1);
+        }
+
+        // If source and destination are the same
+        if (source == target) {
+            return new FlightRoutingSystem.RouteInfo(Arrays.asList(fromCity), 0);
+        }
+
+        int numberOfCities = graph.getNumberOfCities();
+        int[] best = new int[numberOfCities];        // Cheapest cost seen with the flights used so far
+        int[] layerLabel = new int[numberOfCities];  // Label created for a city in the current layer
+        Arrays.fill(best, Integer.MAX_VALUE);
+        Arrays.fill(layerLabel, -1);
+
+        Labels labels = new Labels();
+
+        best[source] = 0;
+        int[] frontier = {labels.add(source, 0, -1)};
+        int frontierSize = 1;
+        int targetLabel = -1;
+
+        for (int flights = 1; flights <= maxFlights && frontierSize > 0; flights++) {
+            int[] next = new int[Math.min(numberOfCities, Math.max(16, frontierSize * 2))];
+            int nextSize = 0;
+
+            for (int f = 0; f < frontierSize; f++) {
+                int label = frontier[f];
+                int city = labels.city[label];
+                int cost = labels.cost[label];
+
+                for (int e = graph.getEdgeStart(city); e < graph.getEdgeEnd(city); e++) {
+                    long newCost = (long) cost + graph.getCost(e);
+                    // Flights are sorted by cost, and nothing beats the best known route to the target
+                    if (newCost > maxCost || newCost >= best[target]) {
+                        break;
+                    }
+                    int neighbor = graph.getTarget(e);
+                    if (newCost >= best[neighbor]) {
+                        continue; // Dominated by a route with no more flights
+                    }
+                    best[neighbor] = (int) newCost;
+
+                    if (layerLabel[neighbor] == -1) {
+                        layerLabel[neighbor] = labels.add(neighbor, (int) newCost, label);
+                        if (nextSize == next.length) {
+                            next = Arrays.copyOf(next, next.length * 2);
+                        }
+                        next[nextSize++] = layerLabel[neighbor];
+                    } else {
+                        labels.cost[layerLabel[neighbor]] = (int) newCost;
+                        labels.parent[layerLabel[neighbor]] = label;
+                    }
+
+                    if (neighbor == target) {
+                        targetLabel = layerLabel[neighbor];
+                    }
+                }
+            }
+
+            for (int i = 0; i < nextSize; i++) {
+                layerLabel[labels.city[next[i]]] = -1;
+            }
+
+            if (stopAtFirstLayer && targetLabel != -1) {
+                break;
+            }
+
+            // The destination is never expanded further
+            int kept = 0;
+            for (int i = 0; i < nextSize; i++) {
+                if (labels.city[next[i]] != target) {
+                    next[kept++] = next[i];
+                }
+            }
+            frontier = next;
+            frontierSize = kept;
+        }
+
+        if (targetLabel == -1) {
+            return new FlightRoutingSystem.RouteInfo(new ArrayList<>(), -1); // No route found
+        }
+        return new FlightRoutingSystem.RouteInfo(reconstructPath(labels, targetLabel), labels.cost[targetLabel]);
+    }
+
+    /**
+     * Helper method to reconstruct the path by following parent labels
+     * @param labels Labels created by the search
+     * @param label Label of the destination
+     * @return List of city names representing the path
+     */
+    private List<String> reconstructPath(Labels labels, int label) {
+        List<String> path = new ArrayList<>();
+        for (int current = label; current != -1; current = labels.parent[current]) {
+            path.add(graph.getCityName(labels.city[current]));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Inner class holding the labels created by one search: city, cost and
+     * parent label index. Every search has its own, so one finder can serve
+     * several threads at once.
+     */
+    private static class Labels {
+        int[] city = new int[16];
+        int[] cost = new int[16];
+        int[] parent = new int[16];
+        int count;
+
+        /**
+         * Create a new label
+         * @return Index of the label
+         */
+        int add(int labelCity, int labelCost, int labelParent) {
+            if (count == city.length) {
+                city = Arrays.copyOf(city, count * 2);
+                cost = Arrays.copyOf(cost, count * 2);
+                parent = Arrays.copyOf(parent, count * 2);
+            }
+            city[count] = labelCity;
+            cost[count] = labelCost;
+            parent[count] = labelParent;
+            return count++;
+        }
+    }
+}
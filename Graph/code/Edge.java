@@ -8,7 +8,7 @@ package code;
  * @version 1.0
  */
 public class Edge {
-    private Vertex destinationCity;  // Destination city (vertex)
+    private final Vertex destinationCity;  // Destination city (vertex), fixed so the source's index stays valid
     private int flightCost;         // Cost of the flight
     private Edge nextEdge;          // Reference to next edge from the same source city
     
@@ -37,10 +37,6 @@ public class Edge {
     }
     
     // Setter methods
-    public void setDestinationCity(Vertex destinationCity) {
-        this.destinationCity = destinationCity;
-    }
-    
     public void setFlightCost(int flightCost) {
         if (flightCost >= 0) {
             this.flightCost = flightCost;
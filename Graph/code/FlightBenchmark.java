@@ -0,0 +1,197 @@
+package code;
+
+import java.util.*;
+
+/**
+ * Benchmark harness for the flight routing system.
+ * Builds synthetic networks with FlightNetworkGenerator and measures:
+ * - addFlight build throughput (flights per second)
+ * - findShortestRoute (BFS) latency
+ * - findCheapestRoute (Dijkstra) latency
+ * - findAllRoutes latency (on small networks only, the output is exponential)
+ *
+ * Usage: java code.FlightBenchmark [size ...]
+ * Sizes default to 100 1000 10000; larger sizes up to 1000000 can be passed
+ * on the command line. Every run uses a fixed seed so numbers are comparable
+ * between runs.
+ *
+ * @author Data Structure Course
+ * @version 1.0
+ */
+public class FlightBenchmark {
+    private static final long SEED = 42L;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int QUERIES_PER_ROUND = 50;
+    private static final int ALL_ROUTES_CITIES = 10;
+
+    // Results are accumulated here so the JIT cannot drop the measured calls
+    private static long sink;
+
+    /**
+     * Inner class to store benchmark results
+     */
+    public static class BenchmarkResult {
+        private String operation;
+        private String shape;
+        private int numberOfCities;
+        private long[] samplesNanoseconds;
+
+        public BenchmarkResult(String operation, String shape, int numberOfCities, long[] samplesNanoseconds) {
+            this.operation = operation;
+            this.shape = shape;
+            this.numberOfCities = numberOfCities;
+            this.samplesNanoseconds = samplesNanoseconds.clone();
+            Arrays.sort(this.samplesNanoseconds);
+        }
+
+        public long getMedianNanoseconds() {
+            return samplesNanoseconds[samplesNanoseconds.length / 2];
+        }
+
+        public long getPercentileNanoseconds(double percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * samplesNanoseconds.length) - 1;
+            return samplesNanoseconds[Math.max(0, Math.min(index, samplesNanoseconds.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %-20s %,10d cities: median %,14d ns | p99 %,14d ns",
+                shape, operation, numberOfCities, getMedianNanoseconds(), getPercentileNanoseconds(99));
+        }
+    }
+
+    /**
+     * Main method to run the benchmark
+     */
+    public static void main(String[] args) {
+        int[] sizes = {100, 1000, 10000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.println("=== Flight Routing System Benchmark ===\n");
+
+        for (int size : sizes) {
+            System.out.printf("=== %,d cities ===\n", size);
+            for (FlightNetworkGenerator.Shape shape : FlightNetworkGenerator.Shape.values()) {
+                FlightNetworkGenerator.Network network = FlightNetworkGenerator.generate(shape, size, SEED);
+                benchmarkBuild(shape.name(), network);
+                benchmarkQueries(shape.name(), network);
+            }
+            System.out.println();
+        }
+
+        System.out.printf("=== findAllRoutes (%d cities) ===\n", ALL_ROUTES_CITIES);
+        for (FlightNetworkGenerator.Shape shape : FlightNetworkGenerator.Shape.values()) {
+            FlightNetworkGenerator.Network network = FlightNetworkGenerator.generate(shape, ALL_ROUTES_CITIES, SEED);
+            benchmarkAllRoutes(shape.name(), network);
+        }
+
+        System.out.println("\n(sink: " + sink + ")");
+    }
+
+    /**
+     * Measure how long it takes to build the graph from scratch with addCity and addFlight
+     */
+    public static BenchmarkResult benchmarkBuild(String shape, FlightNetworkGenerator.Network network) {
+        long[] samples = new long[MEASURED_ROUNDS];
+
+        for (int round = -WARMUP_ROUNDS; round < MEASURED_ROUNDS; round++) {
+            FlightGraph graph = new FlightGraph();
+            long startTime = System.nanoTime();
+            network.addCitiesTo(graph);
+            sink += network.addFlightsTo(graph);
+            long elapsed = System.nanoTime() - startTime;
+            if (round >= 0) {
+                samples[round] = elapsed;
+            }
+        }
+
+        BenchmarkResult result = new BenchmarkResult("build", shape, network.getNumberOfCities(), samples);
+        double flightsPerSecond = network.getNumberOfFlights() / (result.getMedianNanoseconds() / 1_000_000_000.0);
+        System.out.println(result + String.format(" | %,.0f flights/s", flightsPerSecond));
+        return result;
+    }
+
+    /**
+     * Measure single-query latency of findShortestRoute and findCheapestRoute
+     * over random city pairs
+     */
+    public static void benchmarkQueries(String shape, FlightNetworkGenerator.Network network) {
+        FlightGraph graph = network.toFlightGraph();
+        FlightRoutingSystem routingSystem = new FlightRoutingSystem(graph);
+        CompactFlightGraph compactGraph = new CompactFlightGraph(graph);
+        String[][] queries = randomQueries(network.getNumberOfCities(), WARMUP_ROUNDS + MEASURED_ROUNDS);
+
+        long[] shortestSamples = new long[MEASURED_ROUNDS * QUERIES_PER_ROUND];
+        long[] cheapestSamples = new long[MEASURED_ROUNDS * QUERIES_PER_ROUND];
+        long[] compactSamples = new long[MEASURED_ROUNDS * QUERIES_PER_ROUND];
+
+        for (int i = 0; i < queries.length; i++) {
+            int sample = i - WARMUP_ROUNDS * QUERIES_PER_ROUND;
+
+            long startTime = System.nanoTime();
+            sink += routingSystem.findShortestRoute(queries[i][0], queries[i][1]).size();
+            long shortestTime = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            sink += routingSystem.findCheapestRoute(queries[i][0], queries[i][1]).getTotalCost();
+            long cheapestTime = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            sink += compactGraph.findCheapestRoute(queries[i][0], queries[i][1]).getTotalCost();
+            long compactTime = System.nanoTime() - startTime;
+
+            if (sample >= 0) {
+                shortestSamples[sample] = shortestTime;
+                cheapestSamples[sample] = cheapestTime;
+                compactSamples[sample] = compactTime;
+            }
+        }
+
+        System.out.println(new BenchmarkResult("findShortestRoute", shape, network.getNumberOfCities(), shortestSamples));
+        System.out.println(new BenchmarkResult("findCheapestRoute", shape, network.getNumberOfCities(), cheapestSamples));
+        System.out.println(new BenchmarkResult("cheapest (compact)", shape, network.getNumberOfCities(), compactSamples));
+    }
+
+    /**
+     * Measure findAllRoutes latency. Only meaningful on small networks because
+     * the number of simple paths grows exponentially with the network size.
+     */
+    public static BenchmarkResult benchmarkAllRoutes(String shape, FlightNetworkGenerator.Network network) {
+        FlightRoutingSystem routingSystem = new FlightRoutingSystem(network.toFlightGraph());
+        String[][] queries = randomQueries(network.getNumberOfCities(), WARMUP_ROUNDS + MEASURED_ROUNDS);
+        long[] samples = new long[MEASURED_ROUNDS * QUERIES_PER_ROUND];
+
+        for (int i = 0; i < queries.length; i++) {
+            long startTime = System.nanoTime();
+            sink += routingSystem.findAllRoutes(queries[i][0], queries[i][1]).size();
+            long elapsed = System.nanoTime() - startTime;
+            int sample = i - WARMUP_ROUNDS * QUERIES_PER_ROUND;
+            if (sample >= 0) {
+                samples[sample] = elapsed;
+            }
+        }
+
+        BenchmarkResult result = new BenchmarkResult("findAllRoutes", shape, network.getNumberOfCities(), samples);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Generate repeatable random (from, to) city pairs
+     */
+    private static String[][] randomQueries(int numberOfCities, int rounds) {
+        Random random = new Random(SEED);
+        String[][] queries = new String[rounds * QUERIES_PER_ROUND][2];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i][0] = FlightNetworkGenerator.cityName(random.nextInt(numberOfCities));
+            queries[i][1] = FlightNetworkGenerator.cityName(random.nextInt(numberOfCities));
+        }
+        return queries;
+    }
+}
@@ -11,14 +11,19 @@ import java.util.*;
  */
 public class FlightGraph {
     private Vertex head;              // Head of the vertex linked list
+    private Vertex tail;              // Tail of the vertex linked list
     private int numberOfCities;       // Total number of cities in the graph
+    private Map<String, Vertex> cityIndex; // City name to vertex, for constant-time lookup
+    private int modificationCount;    // Incremented whenever cities or flights change
     
     /**
      * Constructor to create an empty flight graph
      */
     public FlightGraph() {
         this.head = null;
+        this.tail = null;
         this.numberOfCities = 0;
+        this.cityIndex = new HashMap<>();
     }
     
     /**
@@ -35,18 +40,17 @@ public class FlightGraph {
         // Create new vertex for the city
         Vertex newCity = new Vertex(cityName);
         
-        // Add to the beginning of the vertex list
+        // Add to the end of the vertex list
         if (head == null) {
             head = newCity;
         } else {
-            Vertex current = head;
-            while (current.getNextVertex() != null) {
-                current = current.getNextVertex();
-            }
-            current.setNextVertex(newCity);
+            tail.setNextVertex(newCity);
         }
+        tail = newCity;
+        cityIndex.put(cityName, newCity);
         
         numberOfCities++;
+        modificationCount++;
         return true;
     }
     
@@ -71,19 +75,17 @@ public class FlightGraph {
         }
         
         // Check if flight already exists (avoid duplicates)
-        if (hasDirectFlight(fromCity, toCity)) {
+        if (sourceVertex.findEdge(toCity) != null) {
             return false;
         }
         
         // Create new edge and add to the source vertex's adjacency list
+        // (this also updates the out-degree and the destination index)
         Edge newFlight = new Edge(destinationVertex, cost);
-        newFlight.setNextEdge(sourceVertex.getFirstEdge());
-        sourceVertex.setFirstEdge(newFlight);
-        
-        // Update degrees
-        sourceVertex.incrementOutDegree();
+        sourceVertex.addEdge(newFlight);
         destinationVertex.incrementInDegree();
         
+        modificationCount++;
         return true;
     }
     
@@ -108,15 +110,7 @@ public class FlightGraph {
             return false;
         }
         
-        Edge currentEdge = sourceVertex.getFirstEdge();
-        while (currentEdge != null) {
-            if (currentEdge.getDestinationCity().getCityName().equals(toCity)) {
-                return true;
-            }
-            currentEdge = currentEdge.getNextEdge();
-        }
-        
-        return false;
+        return sourceVertex.findEdge(toCity) != null;
     }
     
     /**
@@ -131,15 +125,11 @@ public class FlightGraph {
             return -1;
         }
         
-        Edge currentEdge = sourceVertex.getFirstEdge();
-        while (currentEdge != null) {
-            if (currentEdge.getDestinationCity().getCityName().equals(toCity)) {
-                return currentEdge.getFlightCost();
-            }
-            currentEdge = currentEdge.getNextEdge();
+        Edge flight = sourceVertex.findEdge(toCity);
+        if (flight == null) {
+            return -1; // No direct flight found
         }
-        
-        return -1; // No direct flight found
+        return flight.getFlightCost();
     }
     
     /**
@@ -186,16 +176,17 @@ public class FlightGraph {
      * @return Vertex object if found, null otherwise
      */
     protected Vertex getVertex(String cityName) {
-        Vertex current = head;
-        while (current != null) {
-            if (current.getCityName().equals(cityName)) {
-                return current;
-            }
-            current = current.getNextVertex();
-        }
-        return null;
+        return cityIndex.get(cityName);
     }
     
+    /**
+     * Get the first vertex of the vertex linked list
+     * @return First vertex, or null if the graph is empty
+     */
+    protected Vertex getFirstVertex() {
+        return head;
+    }
+
     /**
      * Get the number of cities in the network
      * @return Number of cities
@@ -248,6 +239,18 @@ public class FlightGraph {
      */
     public void clear() {
         head = null;
+        tail = null;
         numberOfCities = 0;
+        cityIndex.clear();
+        modificationCount++;
+    }
+    
+    /**
+     * Get a counter that changes whenever a city or flight is added or the
+     * network is cleared, so callers can tell when a cached snapshot is stale
+     * @return Modification count
+     */
+    public int getModificationCount() {
+        return modificationCount;
     }
 } 
\ No newline at end of file
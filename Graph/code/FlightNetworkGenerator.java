@@ -0,0 +1,258 @@
+package code;
+
+import java.util.*;
+
+/**
+ * FlightNetworkGenerator class producing synthetic flight networks for benchmarking.
+ * Three network shapes are supported:
+ * - Random: every city gets a fixed number of flights to uniformly chosen cities
+ * - Scale-free: preferential attachment, so a few hub cities collect most flights
+ * - Grid: a continental grid where cities connect to their neighbours, plus a few long-haul hubs
+ *
+ * Networks are generated as plain flight lists first, so the cost of building a
+ * FlightGraph can be measured separately from the cost of generating the data.
+ *
+ * @author Data Structure Course
+ * @version 1.0
+ */
+public class FlightNetworkGenerator {
+
+    /**
+     * Available network shapes
+     */
+    public enum Shape {
+        RANDOM, SCALE_FREE, GRID
+    }
+
+    /**
+     * Generate a network of the given shape
+     * @param shape Shape of the network
+     * @param numberOfCities Number of cities to generate
+     * @param seed Random seed, so runs are repeatable
+     * @return Generated network
+     */
+    public static Network generate(Shape shape, int numberOfCities, long seed) {
+        switch (shape) {
+            case RANDOM:
+                return randomNetwork(numberOfCities, 4, seed);
+            case SCALE_FREE:
+                return scaleFreeNetwork(numberOfCities, 2, seed);
+            case GRID:
+                return gridNetwork(numberOfCities, seed);
+            default:
+                throw new IllegalArgumentException("Unknown network shape: " + shape);
+        }
+    }
+
+    /**
+     * Random network: every city has flightsPerCity flights to random other cities
+     * @param numberOfCities Number of cities
+     * @param flightsPerCity Outgoing flights per city
+     * @param seed Random seed
+     * @return Generated network
+     */
+    public static Network randomNetwork(int numberOfCities, int flightsPerCity, long seed) {
+        Random random = new Random(seed);
+        Network network = new Network(numberOfCities, numberOfCities * flightsPerCity);
+
+        for (int from = 0; from < numberOfCities && numberOfCities > 1; from++) {
+            for (int i = 0; i < flightsPerCity; i++) {
+                int to = random.nextInt(numberOfCities - 1);
+                if (to >= from) {
+                    to++; // Skip self loops
+                }
+                network.addFlight(from, to, 50 + random.nextInt(950));
+            }
+        }
+
+        return network;
+    }
+
+    /**
+     * Scale-free network using preferential attachment (Barabasi-Albert model).
+     * Each new city connects to flightsPerCity existing cities, chosen with
+     * probability proportional to their current number of flights. Flights are
+     * added in both directions.
+     * @param numberOfCities Number of cities
+     * @param flightsPerCity Connections made by each new city
+     * @param seed Random seed
+     * @return Generated network
+     */
+    public static Network scaleFreeNetwork(int numberOfCities, int flightsPerCity, long seed) {
+        Random random = new Random(seed);
+        Network network = new Network(numberOfCities, 2 * numberOfCities * flightsPerCity);
+
+        // Every flight endpoint is recorded once, so picking a random entry
+        // picks a city with probability proportional to its degree
+        int[] endpoints = new int[2 * numberOfCities * flightsPerCity + 2];
+        int endpointCount = 0;
+
+        int seedCities = Math.min(numberOfCities, flightsPerCity + 1);
+        for (int a = 0; a < seedCities; a++) {
+            for (int b = a + 1; b < seedCities; b++) {
+                int cost = 50 + random.nextInt(950);
+                network.addFlight(a, b, cost);
+                network.addFlight(b, a, cost);
+                endpoints[endpointCount++] = a;
+                endpoints[endpointCount++] = b;
+            }
+        }
+
+        for (int city = seedCities; city < numberOfCities; city++) {
+            for (int i = 0; i < flightsPerCity; i++) {
+                int target = endpointCount == 0 ? random.nextInt(city) : endpoints[random.nextInt(endpointCount)];
+                int cost = 50 + random.nextInt(950);
+                network.addFlight(city, target, cost);
+                network.addFlight(target, city, cost);
+                if (endpointCount + 2 > endpoints.length) {
+                    endpoints = Arrays.copyOf(endpoints, endpoints.length * 2);
+                }
+                endpoints[endpointCount++] = city;
+                endpoints[endpointCount++] = target;
+            }
+        }
+
+        return network;
+    }
+
+    /**
+     * Grid-like continental network. Cities sit on a square grid and fly to
+     * their four neighbours, with cost growing with distance. About one city
+     * in a hundred is a hub with long-haul flights to other hubs.
+     * @param numberOfCities Number of cities (rounded into a near-square grid)
+     * @param seed Random seed
+     * @return Generated network
+     */
+    public static Network gridNetwork(int numberOfCities, long seed) {
+        Random random = new Random(seed);
+        int columns = Math.max(1, (int) Math.sqrt(numberOfCities));
+        Network network = new Network(numberOfCities, 4 * numberOfCities + numberOfCities / 10);
+
+        for (int city = 0; city < numberOfCities; city++) {
+            int row = city / columns;
+            int column = city % columns;
+
+            if (column + 1 < columns && city + 1 < numberOfCities) {
+                int cost = 100 + random.nextInt(100);
+                network.addFlight(city, city + 1, cost);
+                network.addFlight(city + 1, city, cost);
+            }
+            if (city + columns < numberOfCities) {
+                int cost = 100 + random.nextInt(100);
+                network.addFlight(city, city + columns, cost);
+                network.addFlight(city + columns, city, cost);
+            }
+
+            // Long-haul flights between hubs
+            if (row % 10 == 0 && column % 10 == 0 && city > 0) {
+                int otherRow = random.nextInt(row / 10 + 1) * 10;
+                int otherColumn = random.nextInt((columns - 1) / 10 + 1) * 10;
+                int otherHub = otherRow * columns + otherColumn;
+                if (otherHub < city) {
+                    int distance = Math.abs(otherRow - row) + Math.abs(otherColumn - column);
+                    int cost = 80 * distance + random.nextInt(200);
+                    network.addFlight(city, otherHub, cost);
+                    network.addFlight(otherHub, city, cost);
+                }
+            }
+        }
+
+        return network;
+    }
+
+    /**
+     * Name used for the city with the given index
+     * @param index City index
+     * @return City name
+     */
+    public static String cityName(int index) {
+        return "C" + index;
+    }
+
+    /**
+     * Inner class holding a generated network as parallel flight arrays
+     */
+    public static class Network {
+        private int numberOfCities;
+        private int[] from;
+        private int[] to;
+        private int[] cost;
+        private int numberOfFlights;
+
+        public Network(int numberOfCities, int expectedFlights) {
+            this.numberOfCities = numberOfCities;
+            this.from = new int[Math.max(1, expectedFlights)];
+            this.to = new int[from.length];
+            this.cost = new int[from.length];
+            this.numberOfFlights = 0;
+        }
+
+        /**
+         * Record a flight between two city indexes
+         */
+        public void addFlight(int fromCity, int toCity, int flightCost) {
+            if (numberOfFlights == from.length) {
+                from = Arrays.copyOf(from, from.length * 2);
+                to = Arrays.copyOf(to, to.length * 2);
+                cost = Arrays.copyOf(cost, cost.length * 2);
+            }
+            from[numberOfFlights] = fromCity;
+            to[numberOfFlights] = toCity;
+            cost[numberOfFlights] = flightCost;
+            numberOfFlights++;
+        }
+
+        /**
+         * Add every city of this network to the given graph
+         */
+        public void addCitiesTo(FlightGraph graph) {
+            for (int i = 0; i < numberOfCities; i++) {
+                graph.addCity(cityName(i));
+            }
+        }
+
+        /**
+         * Add every flight of this network to the given graph
+         * @return Number of flights actually added (duplicates are rejected)
+         */
+        public int addFlightsTo(FlightGraph graph) {
+            int added = 0;
+            for (int i = 0; i < numberOfFlights; i++) {
+                if (graph.addFlight(cityName(from[i]), cityName(to[i]), cost[i])) {
+                    added++;
+                }
+            }
+            return added;
+        }
+
+        /**
+         * Build a complete FlightGraph from this network
+         */
+        public FlightGraph toFlightGraph() {
+            FlightGraph graph = new FlightGraph();
+            addCitiesTo(graph);
+            addFlightsTo(graph);
+            return graph;
+        }
+
+        public int getNumberOfCities() {
+            return numberOfCities;
+        }
+
+        public int getNumberOfFlights() {
+            return numberOfFlights;
+        }
+
+        public int getFrom(int flight) {
+            return from[flight];
+        }
+
+        public int getTo(int flight) {
+            return to[flight];
+        }
+
+        public int getCost(int flight) {
+            return cost[flight];
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package code;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * FlightQueryService class providing a concurrent front-end for FlightRoutingSystem.
+ * Route requests are submitted in-process and answered asynchronously:
+ * - Every computation runs on its own virtual thread when the JVM supports them
+ *   (Java 21+), otherwise on a cached thread pool
+ * - Identical in-flight requests (same from, to and mode) are coalesced, so only
+ *   one computation runs. Each caller receives its own dependent future holding
+ *   its own copy of the route, so cancelling or completing one caller's future
+ *   does not affect the others
+ *
+ * The routing algorithms only read the graph, so many queries can run at once.
+ * The flight graph must not be modified while the service is running.
+ *
+ * @author Data Structure Course
+ * @version 1.0
+ */
+public class FlightQueryService implements AutoCloseable {
+
+    /**
+     * Kind of route being requested
+     */
+    public enum Mode {
+        ANY,       // DFS, any route
+        SHORTEST,  // BFS, fewest hops
+        CHEAPEST   // Dijkstra, lowest cost
+    }
+
+    private final FlightRoutingSystem routingSystem;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<Query, CompletableFuture<FlightRoutingSystem.RouteInfo>> inFlight;
+
+    /**
+     * Constructor
+     * @param routingSystem The routing system answering the queries
+     */
+    public FlightQueryService(FlightRoutingSystem routingSystem) {
+        this(routingSystem, newPerTaskExecutor());
+    }
+
+    /**
+     * Constructor with a custom executor
+     * @param routingSystem The routing system answering the queries
+     * @param executor Executor running the computations
+     */
+    public FlightQueryService(FlightRoutingSystem routingSystem, ExecutorService executor) {
+        this.routingSystem = routingSystem;
+        this.executor = executor;
+        this.inFlight = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Submit a route request.
+     * If an identical request is already being computed, the caller joins it
+     * instead of starting a new computation.
+     * @param fromCity Source city
+     * @param toCity Destination city
+     * @param mode Kind of route requested
+     * @return Future completed with the route (an invalid RouteInfo if no route exists)
+     */
+    public CompletableFuture<FlightRoutingSystem.RouteInfo> submit(String fromCity, String toCity, Mode mode) {
+        if (fromCity == null || toCity == null || mode == null) {
+            throw new IllegalArgumentException("City names and mode cannot be null");
+        }
+
+        Query query = new Query(fromCity, toCity, mode);
+        CompletableFuture<FlightRoutingSystem.RouteInfo> future = new CompletableFuture<>();
+        CompletableFuture<FlightRoutingSystem.RouteInfo> existing = inFlight.putIfAbsent(query, future);
+        if (existing != null) {
+            return viewOf(existing); // Coalesce with the computation already running
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(compute(query));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    // Later requests start a fresh computation
+                    inFlight.remove(query, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(query, future);
+            future.completeExceptionally(e);
+        }
+
+        return viewOf(future);
+    }
+
+    /**
+     * Submit a route request and wait for the answer
+     * @param fromCity Source city
+     * @param toCity Destination city
+     * @param mode Kind of route requested
+     * @return Route information
+     */
+    public FlightRoutingSystem.RouteInfo query(String fromCity, String toCity, Mode mode)
+            throws InterruptedException, ExecutionException {
+        return submit(fromCity, toCity, mode).get();
+    }
+
+    /**
+     * Get the number of distinct computations currently running
+     * @return Number of in-flight computations
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Stop accepting requests. Running computations are allowed to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Run the routing algorithm for a single query
+     */
+    private FlightRoutingSystem.RouteInfo compute(Query query) {
+        switch (query.mode) {
+            case CHEAPEST:
+                return routingSystem.findCheapestRoute(query.fromCity, query.toCity);
+            case SHORTEST:
+                return toRouteInfo(routingSystem.findShortestRoute(query.fromCity, query.toCity));
+            case ANY:
+                return toRouteInfo(routingSystem.findAnyRoute(query.fromCity, query.toCity));
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + query.mode);
+        }
+    }
+
+    /**
+     * Create a caller's view of a shared computation. Cancelling or completing
+     * the view leaves the shared future untouched, and the route list is copied
+     * so callers cannot see each other's changes.
+     */
+    private static CompletableFuture<FlightRoutingSystem.RouteInfo> viewOf(
+            CompletableFuture<FlightRoutingSystem.RouteInfo> shared) {
+        return shared.thenApply(info -> new FlightRoutingSystem.RouteInfo(
+            new ArrayList<>(info.getRoute()), info.getTotalCost()));
+    }
+
+    /**
+     * Wrap a plain route into a RouteInfo with its cost
+     */
+    private FlightRoutingSystem.RouteInfo toRouteInfo(List<String> route) {
+        if (route.isEmpty()) {
+            return new FlightRoutingSystem.RouteInfo(route, -1);
+        }
+        return new FlightRoutingSystem.RouteInfo(route, routingSystem.calculateRouteCost(route));
+    }
+
+    /**
+     * Create an executor starting one virtual thread per task when available
+     * (Java 21+), falling back to a cached pool of daemon platform threads.
+     */
+    private static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "flight-query");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Inner class used as the coalescing key for a request
+     */
+    private static class Query {
+        final String fromCity;
+        final String toCity;
+        final Mode mode;
+
+        Query(String fromCity, String toCity, Mode mode) {
+            this.fromCity = fromCity;
+            this.toCity = toCity;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Query)) return false;
+            Query other = (Query) obj;
+            return mode == other.mode && fromCity.equals(other.fromCity) && toCity.equals(other.toCity);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fromCity, toCity, mode);
+        }
+    }
+}
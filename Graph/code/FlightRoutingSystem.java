@@ -13,6 +13,9 @@ import java.util.*;
 public class FlightRoutingSystem {
     private FlightGraph flightGraph;
     
+    // Compact snapshot for the constrained queries, rebuilt when the graph changes
+    private volatile ConstrainedSnapshot constrainedSnapshot;
+    
     /**
      * Constructor
      * @param flightGraph The flight network graph
@@ -200,6 +203,49 @@ public class FlightRoutingSystem {
         return new RouteInfo(new ArrayList<>(), -1); // No route found
     }
     
+    /**
+     * Find cheapest route with at most maxStops intermediate cities.
+     * Uses a bounded-hop dynamic programming search, O(maxStops * E)
+     * @param fromCity Source city
+     * @param toCity Destination city
+     * @param maxStops Maximum number of stops (0 means direct flights only)
+     * @return RouteInfo containing the cheapest route and total cost
+     */
+    public RouteInfo findCheapestRouteWithMaxStops(String fromCity, String toCity, int maxStops) {
+        return getConstrainedFinder().findCheapestRouteWithMaxStops(fromCity, toCity, maxStops);
+    }
+
+    /**
+     * Find route with the fewest flights whose total cost does not exceed maxCost.
+     * Uses a layered label-correcting search, O(V * E) in the worst case
+     * @param fromCity Source city
+     * @param toCity Destination city
+     * @param maxCost Maximum total cost allowed
+     * @return RouteInfo containing the route and total cost
+     */
+    public RouteInfo findFewestHopsRouteWithinBudget(String fromCity, String toCity, int maxCost) {
+        return getConstrainedFinder().findFewestHopsRouteWithinBudget(fromCity, toCity, maxCost);
+    }
+
+    /**
+     * Get the route finder over a compact snapshot of the graph. The snapshot is
+     * built on first use and rebuilt only after a city or flight has been added
+     * or the graph cleared. The finder keeps no state between searches, so
+     * concurrent queries share it; two threads that find the snapshot stale at
+     * once may both rebuild it, and either result is correct.
+     * @return Route finder for the current graph
+     */
+    private ConstrainedRouteFinder getConstrainedFinder() {
+        int modificationCount = flightGraph.getModificationCount();
+        ConstrainedSnapshot snapshot = constrainedSnapshot;
+        if (snapshot == null || snapshot.modificationCount != modificationCount) {
+            snapshot = new ConstrainedSnapshot(modificationCount,
+                new ConstrainedRouteFinder(new CompactFlightGraph(flightGraph)));
+            constrainedSnapshot = snapshot;
+        }
+        return snapshot.finder;
+    }
+
     /**
      * Find all possible routes between two cities using DFS with path tracking
      * @param fromCity Source city
@@ -314,6 +360,20 @@ public class FlightRoutingSystem {
         }
     }
     
+    /**
+     * Inner class pairing a route finder with the graph modification count it
+     * was built at, so both are published together
+     */
+    private static class ConstrainedSnapshot {
+        final int modificationCount;
+        final ConstrainedRouteFinder finder;
+
+        ConstrainedSnapshot(int modificationCount, ConstrainedRouteFinder finder) {
+            this.modificationCount = modificationCount;
+            this.finder = finder;
+        }
+    }
+    
     /**
      * Inner class to represent route information with path and cost
      */
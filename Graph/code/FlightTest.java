@@ -1,6 +1,7 @@
 package code;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Test program for the Flight Routing System
@@ -96,6 +97,12 @@ public class FlightTest {
             System.out.println((i + 1) + ". " + allRoutes.get(i));
         }
         
+        // Constrained routes
+        System.out.println("\nCheapest route from KL to Sydney with at most 1 stop:");
+        System.out.println("  " + routingSystem.findCheapestRouteWithMaxStops("KL", "Sydney", 1));
+        System.out.println("Fewest flights from KL to Sydney within $1300:");
+        System.out.println("  " + routingSystem.findFewestHopsRouteWithinBudget("KL", "Sydney", 1300));
+
         // Test 6: Edge cases
         System.out.println("\n6. EDGE CASE TESTING");
         System.out.println("-".repeat(40));
@@ -124,6 +131,11 @@ public class FlightTest {
         System.out.println("-".repeat(40));
         performanceAnalysis(routingSystem, "KL", "Sydney");
         
+        // Test 9: Concurrent queries
+        System.out.println("\n9. CONCURRENT QUERIES");
+        System.out.println("-".repeat(40));
+        testCoalescedCancellation(routingSystem, "KL", "Sydney");
+        
         System.out.println("\n" + "=".repeat(60));
         System.out.println("        TEST PROGRAM COMPLETED SUCCESSFULLY");
         System.out.println("=".repeat(60));
@@ -260,4 +272,43 @@ public class FlightTest {
         System.out.println("  All routes time: " + allRoutesTime / 1000 + " microseconds");
         System.out.println("  Total routes found: " + allRoutes.size());
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Test that cancelling one of several coalesced requests leaves the others unaffected
+     */
+    private static void testCoalescedCancellation(FlightRoutingSystem system, String from, String to) {
+        // A single worker held by a latch keeps both requests in flight together
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        
+        try (FlightQueryService service = new FlightQueryService(system, executor)) {
+            CompletableFuture<FlightRoutingSystem.RouteInfo> first =
+                service.submit(from, to, FlightQueryService.Mode.CHEAPEST);
+            CompletableFuture<FlightRoutingSystem.RouteInfo> second =
+                service.submit(from, to, FlightQueryService.Mode.CHEAPEST);
+            CompletableFuture<FlightRoutingSystem.RouteInfo> third =
+                service.submit(from, to, FlightQueryService.Mode.CHEAPEST);
+            System.out.println("In-flight computations for three identical requests: " +
+                              service.getInFlightCount());
+            
+            first.cancel(true);
+            release.countDown();
+            FlightRoutingSystem.RouteInfo secondRoute = second.get(5, TimeUnit.SECONDS);
+            System.out.println("First request cancelled: " + first.isCancelled());
+            System.out.println("Second request still answered: " + secondRoute);
+            
+            secondRoute.getRoute().clear();
+            FlightRoutingSystem.RouteInfo thirdRoute = third.get(5, TimeUnit.SECONDS);
+            System.out.println("Third request unaffected by changes to the second route: " + thirdRoute);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            System.out.println("Concurrent query failed: " + e);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package code;
+
+import java.util.*;
+
+/**
+ * GraphPartitioner class splitting a flight network into k regions of similar
+ * size with few flights crossing between regions (a small edge cut).
+ *
+ * The partition is computed in two steps:
+ * 1. Region growing: each region is grown by BFS from an unassigned city until
+ *    it holds n / k cities, so regions are mostly connected pieces of the network
+ * 2. Refinement: cities on a region border are moved to the neighbouring region
+ *    holding most of their flights, as long as region sizes stay balanced
+ *
+ * @author Data Structure Course
+ * @version 1.0
+ */
+public class GraphPartitioner {
+    private static final int REFINEMENT_PASSES = 4;
+    private static final double BALANCE_TOLERANCE = 0.05;
+
+    /**
+     * Partition a flight network into k regions
+     * @param graph The flight network snapshot
+     * @param k Number of regions
+     * @return Partition of the network
+     */
+    public static Partition partition(CompactFlightGraph graph, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Number of regions must be positive");
+        }
+
+        int n = graph.getNumberOfCities();
+        k = Math.max(1, Math.min(k, n));
+        int[] region = new int[n];
+        int[] regionSize = new int[k];
+        Arrays.fill(region, -1);
+
+        // Flights are followed in both directions when growing regions
+        int[] neighborStart = new int[n + 1];
+        int[] neighbors = undirectedNeighbors(graph, neighborStart);
+
+        // Step 1: region growing
+        int targetSize = (n + k - 1) / k;
+        int[] queue = new int[n];
+        int current = 0;
+        for (int start = 0; start < n; start++) {
+            if (region[start] != -1) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            region[start] = current;
+            regionSize[current]++;
+
+            while (head < tail && regionSize[current] < targetSize) {
+                int city = queue[head++];
+                for (int i = neighborStart[city]; i < neighborStart[city + 1] && regionSize[current] < targetSize; i++) {
+                    int neighbor = neighbors[i];
+                    if (region[neighbor] == -1) {
+                        region[neighbor] = current;
+                        regionSize[current]++;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+
+            if (regionSize[current] >= targetSize && current < k - 1) {
+                current++;
+            }
+        }
+
+        // Step 2: move border cities towards the region holding most of their flights
+        int maxSize = (int) Math.ceil(targetSize * (1 + BALANCE_TOLERANCE));
+        int minSize = (int) Math.floor(targetSize * (1 - BALANCE_TOLERANCE));
+        int[] count = new int[k];
+        for (int pass = 0; pass < REFINEMENT_PASSES; pass++) {
+            int moved = 0;
+            for (int city = 0; city < n; city++) {
+                int own = region[city];
+                for (int i = neighborStart[city]; i < neighborStart[city + 1]; i++) {
+                    count[region[neighbors[i]]]++;
+                }
+
+                int best = own;
+                for (int i = neighborStart[city]; i < neighborStart[city + 1]; i++) {
+                    int candidate = region[neighbors[i]];
+                    if (count[candidate] > count[best] && regionSize[candidate] < maxSize) {
+                        best = candidate;
+                    }
+                }
+                if (best != own && regionSize[own] > minSize) {
+                    region[city] = best;
+                    regionSize[own]--;
+                    regionSize[best]++;
+                    moved++;
+                }
+
+                for (int i = neighborStart[city]; i < neighborStart[city + 1]; i++) {
+                    count[region[neighbors[i]]] = 0;
+                }
+                count[own] = 0;
+            }
+            if (moved == 0) {
+                break;
+            }
+        }
+
+        return new Partition(graph, k, region);
+    }
+
+    /**
+     * Build the undirected neighbour lists of every city
+     * @param graph The flight network snapshot
+     * @param neighborStart Filled with the start index of every city's neighbours
+     * @return Neighbour array
+     */
+    private static int[] undirectedNeighbors(CompactFlightGraph graph, int[] neighborStart) {
+        int n = graph.getNumberOfCities();
+        int[] degree = new int[n];
+        for (int city = 0; city < n; city++) {
+            for (int e = graph.getEdgeStart(city); e < graph.getEdgeEnd(city); e++) {
+                degree[city]++;
+                degree[graph.getTarget(e)]++;
+            }
+        }
+        for (int city = 0; city < n; city++) {
+            neighborStart[city + 1] = neighborStart[city] + degree[city];
+        }
+
+        int[] neighbors = new int[neighborStart[n]];
+        int[] fill = Arrays.copyOf(neighborStart, n);
+        for (int city = 0; city < n; city++) {
+            for (int e = graph.getEdgeStart(city); e < graph.getEdgeEnd(city); e++) {
+                int target = graph.getTarget(e);
+                neighbors[fill[city]++] = target;
+                neighbors[fill[target]++] = city;
+            }
+        }
+        return neighbors;
+    }
+
+    /**
+     * Inner class describing a partition of the network into regions
+     */
+    public static class Partition {
+        private CompactFlightGraph graph;
+        private int numberOfRegions;
+        private int[] region;
+
+        public Partition(CompactFlightGraph graph, int numberOfRegions, int[] region) {
+            this.graph = graph;
+            this.numberOfRegions = numberOfRegions;
+            this.region = region;
+        }
+
+        public CompactFlightGraph getGraph() {
+            return graph;
+        }
+
+        public int getNumberOfRegions() {
+            return numberOfRegions;
+        }
+
+        /**
+         * Get the region of a city
+         * @param city City index
+         * @return Region number
+         */
+        public int getRegion(int city) {
+            return region[city];
+        }
+
+        /**
+         * Get the number of cities in a region
+         * @param r Region number
+         * @return Number of cities
+         */
+        public int getRegionSize(int r) {
+            int size = 0;
+            for (int city = 0; city < region.length; city++) {
+                if (region[city] == r) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        /**
+         * Get the number of flights between cities of different regions
+         * @return Edge cut size
+         */
+        public int getCutSize() {
+            return getCutFlights()[0].length;
+        }
+
+        /**
+         * Get the flights with both ends inside a region
+         * @param r Region number
+         * @return Array {from, to, cost} of parallel arrays
+         */
+        public int[][] getRegionFlights(int r) {
+            return collectFlights(r);
+        }
+
+        /**
+         * Get the flights crossing between regions
+         * @return Array {from, to, cost} of parallel arrays
+         */
+        public int[][] getCutFlights() {
+            return collectFlights(-1);
+        }
+
+        /**
+         * Collect flights inside region r, or crossing flights when r is -1
+         */
+        private int[][] collectFlights(int r) {
+            int count = 0;
+            for (int city = 0; city < region.length; city++) {
+                for (int e = graph.getEdgeStart(city); e < graph.getEdgeEnd(city); e++) {
+                    if (selected(r, city, graph.getTarget(e))) {
+                        count++;
+                    }
+                }
+            }
+
+            int[][] flights = new int[3][count];
+            int i = 0;
+            for (int city = 0; city < region.length; city++) {
+                for (int e = graph.getEdgeStart(city); e < graph.getEdgeEnd(city); e++) {
+                    if (selected(r, city, graph.getTarget(e))) {
+                        flights[0][i] = city;
+                        flights[1][i] = graph.getTarget(e);
+                        flights[2][i] = graph.getCost(e);
+                        i++;
+                    }
+                }
+            }
+            return flights;
+        }
+
+        /**
+         * Check if a flight is inside region r, or crossing regions when r is -1
+         */
+        private boolean selected(int r, int from, int to) {
+            if (r == -1) {
+                return region[from] != region[to];
+            }
+            return region[from] == r && region[to] == r;
+        }
+    }
+}
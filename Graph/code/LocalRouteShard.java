@@ -0,0 +1,177 @@
+package code;
+
+import java.util.*;
+
+/**
+ * LocalRouteShard class holding the flights of one region in memory.
+ * Flights are kept in primitive arrays in both directions, so distances
+ * from a city and distances to a city can both be found with Dijkstra's algorithm.
+ *
+ * @author Data Structure Course
+ * @version 1.0
+ */
+public class LocalRouteShard implements RouteShard {
+    private Map<Integer, Integer> localIndex;  // Global city index to local index
+    private int[] globalIndex;                 // Local city index to global index
+    private int[] forwardStart, forwardTarget, forwardCost;
+    private int[] reverseStart, reverseTarget, reverseCost;
+
+    /**
+     * Constructor
+     * @param flights Flights of the region as {from, to, cost} parallel arrays of global indexes
+     */
+    public LocalRouteShard(int[][] flights) {
+        int[] from = flights[0];
+        int[] to = flights[1];
+        int[] cost = flights[2];
+
+        localIndex = new HashMap<>();
+        for (int i = 0; i < from.length; i++) {
+            localIndex.putIfAbsent(from[i], localIndex.size());
+            localIndex.putIfAbsent(to[i], localIndex.size());
+        }
+        globalIndex = new int[localIndex.size()];
+        for (Map.Entry<Integer, Integer> entry : localIndex.entrySet()) {
+            globalIndex[entry.getValue()] = entry.getKey();
+        }
+
+        int[] localFrom = new int[from.length];
+        int[] localTo = new int[to.length];
+        for (int i = 0; i < from.length; i++) {
+            localFrom[i] = localIndex.get(from[i]);
+            localTo[i] = localIndex.get(to[i]);
+        }
+
+        int n = globalIndex.length;
+        forwardStart = new int[n + 1];
+        forwardTarget = new int[from.length];
+        forwardCost = new int[from.length];
+        buildAdjacency(localFrom, localTo, cost, forwardStart, forwardTarget, forwardCost);
+
+        reverseStart = new int[n + 1];
+        reverseTarget = new int[from.length];
+        reverseCost = new int[from.length];
+        buildAdjacency(localTo, localFrom, cost, reverseStart, reverseTarget, reverseCost);
+    }
+
+    @Override
+    public int[] distances(int source, int[] targets) {
+        return lookup(source, targets, forwardStart, forwardTarget, forwardCost);
+    }
+
+    @Override
+    public int[] reverseDistances(int target, int[] sources) {
+        return lookup(target, sources, reverseStart, reverseTarget, reverseCost);
+    }
+
+    @Override
+    public int[] path(int source, int target) {
+        if (source == target) {
+            return new int[] {source};
+        }
+        Integer start = localIndex.get(source);
+        Integer end = localIndex.get(target);
+        if (start == null || end == null) {
+            return new int[0];
+        }
+
+        int[] parent = new int[globalIndex.length];
+        int[] distance = dijkstra(start, forwardStart, forwardTarget, forwardCost, parent);
+        if (distance[end] == Integer.MAX_VALUE) {
+            return new int[0];
+        }
+
+        int length = 0;
+        for (int current = end; current != -1; current = parent[current]) {
+            length++;
+        }
+        int[] route = new int[length];
+        for (int current = end; current != -1; current = parent[current]) {
+            route[--length] = globalIndex[current];
+        }
+        return route;
+    }
+
+    /**
+     * Get the number of cities with at least one flight in this region
+     * @return Number of cities
+     */
+    public int getNumberOfCities() {
+        return globalIndex.length;
+    }
+
+    /**
+     * Run Dijkstra from one city and read off the distances to several cities
+     */
+    private int[] lookup(int origin, int[] others, int[] start, int[] target, int[] cost) {
+        int[] result = new int[others.length];
+        Arrays.fill(result, -1);
+
+        Integer local = localIndex.get(origin);
+        int[] distance = local == null ? null
+            : dijkstra(local, start, target, cost, new int[globalIndex.length]);
+
+        for (int i = 0; i < others.length; i++) {
+            if (others[i] == origin) {
+                result[i] = 0;
+            } else if (distance != null) {
+                Integer other = localIndex.get(others[i]);
+                if (other != null && distance[other] != Integer.MAX_VALUE) {
+                    result[i] = distance[other];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Dijkstra's algorithm over one direction of the adjacency arrays
+     * @param parent Filled with the parent of every reached city, -1 for the start
+     * @return Distance to every local city, Integer.MAX_VALUE if unreachable
+     */
+    private int[] dijkstra(int origin, int[] start, int[] target, int[] cost, int[] parent) {
+        int[] distance = new int[globalIndex.length];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        distance[origin] = 0;
+        parent[origin] = -1;
+
+        CompactFlightGraph.MinHeap heap = new CompactFlightGraph.MinHeap();
+        heap.push(0, origin);
+        while (!heap.isEmpty()) {
+            long top = heap.pop();
+            int currentDistance = (int) (top >>> 32);
+            int current = (int) top;
+            if (currentDistance > distance[current]) {
+                continue;
+            }
+            for (int e = start[current]; e < start[current + 1]; e++) {
+                int newDistance = currentDistance + cost[e];
+                if (newDistance < distance[target[e]]) {
+                    distance[target[e]] = newDistance;
+                    parent[target[e]] = current;
+                    heap.push(newDistance, target[e]);
+                }
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Fill compressed adjacency arrays from a flight list
+     */
+    private static void buildAdjacency(int[] from, int[] to, int[] cost,
+                                       int[] start, int[] target, int[] edgeCost) {
+        for (int i = 0; i < from.length; i++) {
+            start[from[i] + 1]++;
+        }
+        for (int i = 1; i < start.length; i++) {
+            start[i] += start[i - 1];
+        }
+        int[] fill = Arrays.copyOf(start, start.length - 1);
+        for (int i = 0; i < from.length; i++) {
+            int slot = fill[from[i]]++;
+            target[slot] = to[i];
+            edgeCost[slot] = cost[i];
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package code;
+
+import java.io.*;
+import java.net.*;
+
+/**
+ * RemoteRouteShard class talking to a ShardServer over a socket.
+ * Requests are sent one at a time over a single connection, so calls are synchronized.
+ *
+ * @author Data Structure Course
+ * @version 1.0
+ */
+public class RemoteRouteShard implements RouteShard, Closeable {
+    private Socket socket;
+    private DataInputStream in;
+    private DataOutputStream out;
+
+    /**
+     * Constructor connecting to a shard server
+     * @param host Host name of the server
+     * @param port Port of the server
+     */
+    public RemoteRouteShard(String host, int port) throws IOException {
+        socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    /**
+     * Send the flights of the region to the server
+     * @param flights Flights as {from, to, cost} parallel arrays of global indexes
+     */
+    public synchronized void load(int[][] flights) throws IOException {
+        out.writeByte(ShardServer.LOAD);
+        out.writeInt(flights[0].length);
+        for (int i = 0; i < flights[0].length; i++) {
+            out.writeInt(flights[0][i]);
+            out.writeInt(flights[1][i]);
+            out.writeInt(flights[2][i]);
+        }
+        out.flush();
+        in.readByte();
+    }
+
+    @Override
+    public synchronized int[] distances(int source, int[] targets) throws IOException {
+        return request(ShardServer.DISTANCES, source, targets);
+    }
+
+    @Override
+    public synchronized int[] reverseDistances(int target, int[] sources) throws IOException {
+        return request(ShardServer.REVERSE, target, sources);
+    }
+
+    @Override
+    public synchronized int[] path(int source, int target) throws IOException {
+        out.writeByte(ShardServer.PATH);
+        out.writeInt(source);
+        out.writeInt(target);
+        out.flush();
+        return ShardServer.readInts(in);
+    }
+
+    /**
+     * Ask the server process to stop, then close the connection
+     */
+    public synchronized void shutdown() throws IOException {
+        out.writeByte(ShardServer.SHUTDOWN);
+        out.flush();
+        close();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * Send a distance request and read the answer
+     */
+    private int[] request(byte command, int city, int[] others) throws IOException {
+        out.writeByte(command);
+        out.writeInt(city);
+        ShardServer.writeInts(out, others, true);
+        out.flush();
+
+        int[] result = new int[others.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = in.readInt();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,38 @@
+package code;
+
+import java.io.IOException;
+
+/**
+ * RouteShard interface for one region of a partitioned flight network.
+ * A shard only knows the flights with both ends inside its region and answers
+ * cheapest-route questions restricted to those flights. Cities are identified
+ * by their global index in the full network.
+ *
+ * @author Data Structure Course
+ * @version 1.0
+ */
+public interface RouteShard {
+    /**
+     * Cheapest costs from one city to several cities, using only flights in this region
+     * @param source Source city index
+     * @param targets Destination city indexes
+     * @return Cost to every target, -1 where the target cannot be reached
+     */
+    int[] distances(int source, int[] targets) throws IOException;
+
+    /**
+     * Cheapest costs from several cities to one city, using only flights in this region
+     * @param target Destination city index
+     * @param sources Source city indexes
+     * @return Cost from every source, -1 where the target cannot be reached
+     */
+    int[] reverseDistances(int target, int[] sources) throws IOException;
+
+    /**
+     * Cheapest route between two cities, using only flights in this region
+     * @param source Source city index
+     * @param target Destination city index
+     * @return City indexes along the route, empty if no route exists
+     */
+    int[] path(int source, int target) throws IOException;
+}
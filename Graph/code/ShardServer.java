@@ -0,0 +1,128 @@
+package code;
+
+import java.io.*;
+import java.net.*;
+
+/**
+ * ShardServer class running one route shard as a separate process.
+ * The server listens on the loopback interface, prints "PORT <number>" on the
+ * first line of standard output, and then serves one connection at a time.
+ *
+ * Protocol (DataInputStream / DataOutputStream, one request per command byte):
+ * - LOAD:     int count, then count (from, to, cost) triples    -> byte 0
+ * - DISTANCES: int source, int count, count target ints        -> count ints
+ * - REVERSE:   int target, int count, count source ints        -> count ints
+ * - PATH:      int source, int target                          -> int length, length ints
+ * - SHUTDOWN:  stops the server
+ *
+ * Usage: java code.ShardServer [port]   (port 0 or none picks a free port)
+ *
+ * @author Data Structure Course
+ * @version 1.0
+ */
+public class ShardServer {
+    public static final byte LOAD = 1;
+    public static final byte DISTANCES = 2;
+    public static final byte REVERSE = 3;
+    public static final byte PATH = 4;
+    public static final byte SHUTDOWN = 5;
+
+    private LocalRouteShard shard = new LocalRouteShard(new int[3][0]);
+
+    /**
+     * Main method to start a shard server
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.out.println("PORT " + serverSocket.getLocalPort());
+            System.out.flush();
+
+            ShardServer server = new ShardServer();
+            boolean running = true;
+            while (running) {
+                try (Socket socket = serverSocket.accept()) {
+                    socket.setTcpNoDelay(true);
+                    running = server.serve(socket);
+                }
+            }
+        }
+    }
+
+    /**
+     * Serve requests on one connection
+     * @param socket Client connection
+     * @return false if the client asked the server to shut down
+     */
+    public boolean serve(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        while (true) {
+            int command = in.read();
+            switch (command) {
+                case -1:
+                    return true; // Client disconnected
+                case LOAD:
+                    shard = new LocalRouteShard(readFlights(in));
+                    out.writeByte(0);
+                    break;
+                case DISTANCES:
+                    int source = in.readInt();
+                    writeInts(out, shard.distances(source, readInts(in)), false);
+                    break;
+                case REVERSE:
+                    int target = in.readInt();
+                    writeInts(out, shard.reverseDistances(target, readInts(in)), false);
+                    break;
+                case PATH:
+                    int from = in.readInt();
+                    int to = in.readInt();
+                    writeInts(out, shard.path(from, to), true);
+                    break;
+                case SHUTDOWN:
+                    return false;
+                default:
+                    throw new IOException("Unknown shard command: " + command);
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Read a flight list of (from, to, cost) triples
+     */
+    static int[][] readFlights(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        int[][] flights = new int[3][count];
+        for (int i = 0; i < count; i++) {
+            flights[0][i] = in.readInt();
+            flights[1][i] = in.readInt();
+            flights[2][i] = in.readInt();
+        }
+        return flights;
+    }
+
+    /**
+     * Read a length-prefixed int array
+     */
+    static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    /**
+     * Write an int array, optionally prefixed with its length
+     */
+    static void writeInts(DataOutputStream out, int[] values, boolean withLength) throws IOException {
+        if (withLength) {
+            out.writeInt(values.length);
+        }
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package code;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * ShardedRoutingCoordinator class answering cheapest-route queries over a
+ * network split into regions, where every region is held by its own RouteShard.
+ *
+ * The coordinator keeps only a small overlay graph of boundary cities (cities
+ * with a flight leaving or entering their region):
+ * - shortcut edges between boundary cities of the same region, costing the
+ *   cheapest route inside that region (computed once by the shard)
+ * - the flights crossing between regions
+ *
+ * A query combines a local search in the source region (source to its boundary
+ * cities), Dijkstra over the overlay, and a local search in the destination
+ * region (boundary cities to destination). Any cheapest route is a sequence of
+ * pieces inside one region joined by crossing flights, so the result is exact.
+ *
+ * Besides the overlay, the coordinator keeps the name and region of every city
+ * (a name map and two arrays, O(n) in total), and it is built from the full
+ * partition, so the whole network must fit in one heap while it is constructed.
+ * The partition is not kept afterwards. Shortcuts are unpacked into flights with
+ * a shard path search the first time a route uses them and cached from then on.
+ *
+ * @author Data Structure Course
+ * @version 1.0
+ */
+public class ShardedRoutingCoordinator {
+    private static final int SHORTCUT = 1;  // Overlay edge inside a region
+    private static final int FLIGHT = 2;    // Overlay edge crossing regions
+
+    private String[] cityNames;
+    private Map<String, Integer> cityIndex;
+    private int[] region;
+    private RouteShard[] shards;
+    private int[][] boundary;        // Boundary cities of every region
+
+    // Overlay graph over boundary cities
+    private int[] overlayIndex;      // City index to overlay index, -1 if not a boundary city
+    private int[] overlayCity;       // Overlay index to city index
+    private int[][] overlayTarget;
+    private int[][] overlayCost;
+    private int[][] overlayKind;
+
+    // Unpacked shortcuts, keyed by (from << 32 | to)
+    private final Map<Long, int[]> shortcutPaths = new java.util.concurrent.ConcurrentHashMap<>();
+
+    /**
+     * Constructor building the overlay graph
+     * @param partition Partition of the network
+     * @param shards One shard per region, already loaded with the region's flights
+     */
+    public ShardedRoutingCoordinator(GraphPartitioner.Partition partition, RouteShard[] shards) throws IOException {
+        CompactFlightGraph graph = partition.getGraph();
+        int n = graph.getNumberOfCities();
+        int k = partition.getNumberOfRegions();
+        if (shards.length != k) {
+            throw new IllegalArgumentException("Expected " + k + " shards but got " + shards.length);
+        }
+
+        this.shards = shards;
+        cityNames = new String[n];
+        cityIndex = new HashMap<>(n * 2);
+        region = new int[n];
+        for (int city = 0; city < n; city++) {
+            cityNames[city] = graph.getCityName(city);
+            cityIndex.put(cityNames[city], city);
+            region[city] = partition.getRegion(city);
+        }
+
+        // Boundary cities are the endpoints of crossing flights
+        int[][] cut = partition.getCutFlights();
+        overlayIndex = new int[n];
+        Arrays.fill(overlayIndex, -1);
+        int[] boundaryCount = new int[k];
+        int overlaySize = 0;
+        for (int side = 0; side < 2; side++) {
+            for (int city : cut[side]) {
+                if (overlayIndex[city] == -1) {
+                    overlayIndex[city] = overlaySize++;
+                    boundaryCount[region[city]]++;
+                }
+            }
+        }
+        overlayCity = new int[overlaySize];
+        boundary = new int[k][];
+        for (int r = 0; r < k; r++) {
+            boundary[r] = new int[boundaryCount[r]];
+            boundaryCount[r] = 0;
+        }
+        for (int city = 0; city < n; city++) {
+            if (overlayIndex[city] != -1) {
+                overlayCity[overlayIndex[city]] = city;
+                boundary[region[city]][boundaryCount[region[city]]++] = city;
+            }
+        }
+
+        // Overlay edges: shortcuts inside every region plus the crossing flights
+        List<List<int[]>> edges = new ArrayList<>();
+        for (int i = 0; i < overlaySize; i++) {
+            edges.add(new ArrayList<>());
+        }
+        for (int r = 0; r < k; r++) {
+            for (int from : boundary[r]) {
+                int[] distance = shards[r].distances(from, boundary[r]);
+                for (int i = 0; i < boundary[r].length; i++) {
+                    if (boundary[r][i] != from && distance[i] >= 0) {
+                        edges.get(overlayIndex[from]).add(new int[] {overlayIndex[boundary[r][i]], distance[i], SHORTCUT});
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < cut[0].length; i++) {
+            edges.get(overlayIndex[cut[0][i]]).add(new int[] {overlayIndex[cut[1][i]], cut[2][i], FLIGHT});
+        }
+
+        overlayTarget = new int[overlaySize][];
+        overlayCost = new int[overlaySize][];
+        overlayKind = new int[overlaySize][];
+        for (int i = 0; i < overlaySize; i++) {
+            List<int[]> list = edges.get(i);
+            overlayTarget[i] = new int[list.size()];
+            overlayCost[i] = new int[list.size()];
+            overlayKind[i] = new int[list.size()];
+            for (int j = 0; j < list.size(); j++) {
+                overlayTarget[i][j] = list.get(j)[0];
+                overlayCost[i][j] = list.get(j)[1];
+                overlayKind[i][j] = list.get(j)[2];
+            }
+        }
+    }
+
+    /**
+     * Get the number of cities in the overlay graph
+     * @return Number of boundary cities
+     */
+    public int getOverlaySize() {
+        return overlayCity.length;
+    }
+
+    /**
+     * Find cheapest route by combining local shard searches with an overlay search
+     * @param fromCity Source city
+     * @param toCity Destination city
+     * @return RouteInfo containing the cheapest route and total cost
+     */
+    public FlightRoutingSystem.RouteInfo findCheapestRoute(String fromCity, String toCity) throws IOException {
+        Integer sourceIndex = cityIndex.get(fromCity);
+        Integer targetIndex = cityIndex.get(toCity);
+        if (sourceIndex == null || targetIndex == null) {
+            return new FlightRoutingSystem.RouteInfo(new ArrayList<>(), -1);
+        }
+        int source = sourceIndex;
+        int target = targetIndex;
+
+        // If source and destination are the same
+        if (source == target) {
+            return new FlightRoutingSystem.RouteInfo(Arrays.asList(fromCity), 0);
+        }
+
+        int sourceRegion = region[source];
+        int targetRegion = region[target];
+
+        // Local search in the source region: source to its boundary cities (and to the target)
+        int[] sourceTargets = Arrays.copyOf(boundary[sourceRegion], boundary[sourceRegion].length + 1);
+        sourceTargets[sourceTargets.length - 1] = target;
+        int[] fromSource = shards[sourceRegion].distances(source, sourceTargets);
+
+        // Local search in the target region: its boundary cities to the target
+        int[] toTarget = shards[targetRegion].reverseDistances(target, boundary[targetRegion]);
+        int[] toTargetByOverlay = new int[overlayCity.length];
+        Arrays.fill(toTargetByOverlay, -1);
+        for (int i = 0; i < boundary[targetRegion].length; i++) {
+            toTargetByOverlay[overlayIndex[boundary[targetRegion][i]]] = toTarget[i];
+        }
+
+        long best = Long.MAX_VALUE;
+        int bestExit = -1; // Overlay index of the last boundary city, -1 for a route inside one region
+        if (sourceRegion == targetRegion && fromSource[fromSource.length - 1] >= 0) {
+            best = fromSource[fromSource.length - 1];
+        }
+
+        // Dijkstra over the overlay graph
+        int[] distance = new int[overlayCity.length];
+        int[] parent = new int[overlayCity.length];
+        int[] parentKind = new int[overlayCity.length];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        CompactFlightGraph.MinHeap heap = new CompactFlightGraph.MinHeap();
+        for (int i = 0; i < boundary[sourceRegion].length; i++) {
+            if (fromSource[i] >= 0) {
+                int node = overlayIndex[boundary[sourceRegion][i]];
+                distance[node] = fromSource[i];
+                parent[node] = -1;
+                heap.push(fromSource[i], node);
+            }
+        }
+
+        while (!heap.isEmpty()) {
+            long top = heap.pop();
+            int currentDistance = (int) (top >>> 32);
+            int current = (int) top;
+            if (currentDistance >= best) {
+                break;
+            }
+            if (currentDistance > distance[current]) {
+                continue;
+            }
+
+            if (toTargetByOverlay[current] >= 0 && currentDistance + (long) toTargetByOverlay[current] < best) {
+                best = currentDistance + (long) toTargetByOverlay[current];
+                bestExit = current;
+            }
+
+            for (int j = 0; j < overlayTarget[current].length; j++) {
+                int neighbor = overlayTarget[current][j];
+                int newDistance = currentDistance + overlayCost[current][j];
+                if (newDistance < distance[neighbor]) {
+                    distance[neighbor] = newDistance;
+                    parent[neighbor] = current;
+                    parentKind[neighbor] = overlayKind[current][j];
+                    heap.push(newDistance, neighbor);
+                }
+            }
+        }
+
+        if (best == Long.MAX_VALUE) {
+            return new FlightRoutingSystem.RouteInfo(new ArrayList<>(), -1); // No route found
+        }
+        if (bestExit == -1) {
+            return new FlightRoutingSystem.RouteInfo(toNames(shards[sourceRegion].path(source, target)), (int) best);
+        }
+
+        // Unpack the overlay route into individual flights
+        List<Integer> overlayRoute = new ArrayList<>();
+        for (int node = bestExit; node != -1; node = parent[node]) {
+            overlayRoute.add(node);
+        }
+        Collections.reverse(overlayRoute);
+
+        List<String> route = new ArrayList<>();
+        appendPath(route, shards[sourceRegion].path(source, overlayCity[overlayRoute.get(0)]));
+        for (int i = 1; i < overlayRoute.size(); i++) {
+            int from = overlayCity[overlayRoute.get(i - 1)];
+            int to = overlayCity[overlayRoute.get(i)];
+            if (parentKind[overlayRoute.get(i)] == FLIGHT) {
+                route.add(cityNames[to]);
+            } else {
+                appendPath(route, shortcutPath(from, to));
+            }
+        }
+        appendPath(route, shards[targetRegion].path(overlayCity[bestExit], target));
+
+        return new FlightRoutingSystem.RouteInfo(route, (int) best);
+    }
+
+    /**
+     * Get the flights behind a shortcut between two boundary cities of one region,
+     * asking the region's shard only the first time
+     */
+    private int[] shortcutPath(int from, int to) throws IOException {
+        Long key = ((long) from << 32) | to;
+        int[] path = shortcutPaths.get(key);
+        if (path == null) {
+            path = shards[region[from]].path(from, to);
+            shortcutPaths.put(key, path);
+        }
+        return path;
+    }
+
+    /**
+     * Append a path to a route, skipping the first city when it is already the last one
+     */
+    private void appendPath(List<String> route, int[] path) {
+        for (int i = 0; i < path.length; i++) {
+            if (i == 0 && !route.isEmpty() && route.get(route.size() - 1).equals(cityNames[path[0]])) {
+                continue;
+            }
+            route.add(cityNames[path[i]]);
+        }
+    }
+
+    /**
+     * Convert city indexes to city names
+     */
+    private List<String> toNames(int[] path) {
+        List<String> names = new ArrayList<>();
+        appendPath(names, path);
+        return names;
+    }
+}
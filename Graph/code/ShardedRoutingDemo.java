@@ -0,0 +1,104 @@
+package code;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Demo program for sharded routing.
+ * Partitions a generated network into regions, starts one ShardServer process
+ * per region on the loopback interface, and checks that the coordinator finds
+ * the same cheapest routes as a single-heap search.
+ *
+ * Usage: java code.ShardedRoutingDemo [cities] [regions] [--in-process]
+ *
+ * @author Data Structure Course
+ * @version 1.0
+ */
+public class ShardedRoutingDemo {
+    public static void main(String[] args) throws Exception {
+        int numberOfCities = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int numberOfRegions = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        boolean inProcess = Arrays.asList(args).contains("--in-process");
+
+        System.out.println("=".repeat(60));
+        System.out.println("        SHARDED FLIGHT ROUTING DEMO");
+        System.out.println("=".repeat(60));
+
+        FlightGraph graph = FlightNetworkGenerator.generate(FlightNetworkGenerator.Shape.GRID, numberOfCities, 42L).toFlightGraph();
+        CompactFlightGraph compactGraph = new CompactFlightGraph(graph);
+
+        // 1. Partition the network
+        GraphPartitioner.Partition partition = GraphPartitioner.partition(compactGraph, numberOfRegions);
+        System.out.println("\n1. PARTITION");
+        System.out.println("-".repeat(40));
+        for (int r = 0; r < partition.getNumberOfRegions(); r++) {
+            System.out.println("Region " + r + ": " + partition.getRegionSize(r) + " cities");
+        }
+        System.out.println("Crossing flights: " + partition.getCutSize() + " of " + compactGraph.getNumberOfFlights());
+
+        // 2. Start the shards
+        System.out.println("\n2. SHARDS (" + (inProcess ? "in-process" : "separate processes over loopback") + ")");
+        System.out.println("-".repeat(40));
+        RouteShard[] shards = new RouteShard[partition.getNumberOfRegions()];
+        List<Process> processes = new ArrayList<>();
+        try {
+            for (int r = 0; r < shards.length; r++) {
+                if (inProcess) {
+                    shards[r] = new LocalRouteShard(partition.getRegionFlights(r));
+                } else {
+                    Process process = startShardProcess();
+                    processes.add(process);
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+                    int port = Integer.parseInt(reader.readLine().substring("PORT ".length()));
+                    RemoteRouteShard remote = new RemoteRouteShard("localhost", port);
+                    remote.load(partition.getRegionFlights(r));
+                    shards[r] = remote;
+                    System.out.println("Shard " + r + " listening on port " + port);
+                }
+            }
+
+            ShardedRoutingCoordinator coordinator = new ShardedRoutingCoordinator(partition, shards);
+            System.out.println("Overlay graph: " + coordinator.getOverlaySize() + " boundary cities");
+
+            // 3. Compare with the single-heap search
+            System.out.println("\n3. QUERIES");
+            System.out.println("-".repeat(40));
+            Random random = new Random(7);
+            int queries = 100;
+            int mismatches = 0;
+            for (int i = 0; i < queries; i++) {
+                String from = FlightNetworkGenerator.cityName(random.nextInt(numberOfCities));
+                String to = FlightNetworkGenerator.cityName(random.nextInt(numberOfCities));
+                FlightRoutingSystem.RouteInfo expected = compactGraph.findCheapestRoute(from, to);
+                FlightRoutingSystem.RouteInfo actual = coordinator.findCheapestRoute(from, to);
+                if (expected.getTotalCost() != actual.getTotalCost()) {
+                    mismatches++;
+                    System.out.println("Mismatch " + from + " → " + to + ": " + expected + " vs " + actual);
+                }
+                if (i < 3) {
+                    System.out.println(actual);
+                }
+            }
+            System.out.println("Queries: " + queries + ", mismatches: " + mismatches);
+        } finally {
+            for (RouteShard shard : shards) {
+                if (shard instanceof RemoteRouteShard) {
+                    ((RemoteRouteShard) shard).shutdown();
+                }
+            }
+            for (Process process : processes) {
+                process.waitFor();
+            }
+        }
+    }
+
+    /**
+     * Start a ShardServer in a new JVM using the current class path
+     */
+    private static Process startShardProcess() throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "code.ShardServer");
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        return builder.start();
+    }
+}
@@ -1,5 +1,7 @@
 package code;
 
+import java.util.*;
+
 /**
  * Vertex class representing a city in the flight routing system.
  * Each vertex contains city information and a reference to the first edge (flight route).
@@ -8,11 +10,15 @@ package code;
  * @version 1.0
  */
 public class Vertex {
-    private String cityName;        // Name of the city
+    // Out-degree above which destination lookups use a hash index instead of a list scan
+    private static final int EDGE_INDEX_THRESHOLD = 8;
+
+    private final String cityName;  // Name of the city, fixed so name-keyed indexes stay valid
     private Vertex nextVertex;      // Reference to next vertex in the graph
     private Edge firstEdge;         // Reference to first edge (flight route) from this city
     private int inDegree;          // Number of incoming flights
     private int outDegree;         // Number of outgoing flights
+    private Map<String, Edge> edgeIndex; // Destination name to edge, only for high-degree cities
     
     /**
      * Constructor to create a new vertex (city)
@@ -48,16 +54,80 @@ public class Vertex {
     }
     
     // Setter methods
-    public void setCityName(String cityName) {
-        this.cityName = cityName;
-    }
-    
     public void setNextVertex(Vertex nextVertex) {
         this.nextVertex = nextVertex;
     }
     
+    /**
+     * Replace this city's edge list. The destination index is rebuilt from the new
+     * list, so call this again after relinking edges in place through
+     * Edge.setNextEdge.
+     * @param firstEdge First edge of the new list
+     */
     public void setFirstEdge(Edge firstEdge) {
         this.firstEdge = firstEdge;
+        this.edgeIndex = null;
+        
+        int length = 0;
+        for (Edge currentEdge = firstEdge; currentEdge != null; currentEdge = currentEdge.getNextEdge()) {
+            length++;
+        }
+        if (length > EDGE_INDEX_THRESHOLD) {
+            buildEdgeIndex();
+        }
+    }
+    
+    /**
+     * Add an edge to the front of this city's edge list and update the out-degree.
+     * Once the out-degree passes EDGE_INDEX_THRESHOLD, edges are also indexed by
+     * destination name so findEdge runs in constant time.
+     * @param edge The edge to add
+     */
+    public void addEdge(Edge edge) {
+        edge.setNextEdge(firstEdge);
+        firstEdge = edge;
+        outDegree++;
+        
+        if (edgeIndex != null) {
+            edgeIndex.put(edge.getDestinationName(), edge);
+        } else if (outDegree > EDGE_INDEX_THRESHOLD) {
+            buildEdgeIndex();
+        }
+    }
+    
+    /**
+     * Find the edge leading to the given destination city.
+     * This only reads the vertex: the index is built by addEdge and setFirstEdge,
+     * so concurrent lookups are safe as long as no thread modifies the graph.
+     * @param destinationName Name of the destination city
+     * @return Edge to the destination, or null if there is no such edge
+     */
+    public Edge findEdge(String destinationName) {
+        if (edgeIndex != null) {
+            return edgeIndex.get(destinationName);
+        }
+        
+        Edge currentEdge = firstEdge;
+        while (currentEdge != null) {
+            if (currentEdge.getDestinationName().equals(destinationName)) {
+                return currentEdge;
+            }
+            currentEdge = currentEdge.getNextEdge();
+        }
+        return null;
+    }
+    
+    /**
+     * Build the destination index from the current edge list
+     */
+    private void buildEdgeIndex() {
+        edgeIndex = new HashMap<>();
+        Edge currentEdge = firstEdge;
+        while (currentEdge != null) {
+            // Keep the first edge for a destination, matching a front-to-back scan
+            edgeIndex.putIfAbsent(currentEdge.getDestinationName(), currentEdge);
+            currentEdge = currentEdge.getNextEdge();
+        }
     }
     
     // Utility methods for degree management